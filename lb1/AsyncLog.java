@@ -0,0 +1,221 @@
+package lb1;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Асинхронний лог для симуляції:
+ * - актор лише записує час, who і msg у заздалегідь виділений слот кільцевого буфера
+ *   (без форматування і без нових об'єктів, крім самого msg);
+ * - один фоновий потік-писар форматує події прямо в буфер виводу і пише їх пачками;
+ *   коли подій немає, писар спить у park, і його будить перша подія в порожньому буфері;
+ * - якщо буфер заповнений, подію відкидаємо і рахуємо в dropped (актор не чекає).
+ *
+ * Рівень: -Dlb1.log.level=DEBUG|INFO|WARN|OFF, розмір буфера: -Dlb1.log.buffer=8192.
+ * ENABLED = false прибирає логування повністю ще на етапі компіляції.
+ */
+final class AsyncLog implements AutoCloseable {
+
+    static final boolean ENABLED = true;
+
+    enum Level { DEBUG, INFO, WARN, OFF }
+
+    // Слот кільця; seq == n + 1 означає, що подію з номером n уже записано і її можна читати
+    private static final class Event {
+        volatile long seq;
+        long timeMs;
+        String who;
+        String msg;
+
+        Event(long seq) { this.seq = seq; }
+    }
+
+    private final Event[] slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(); // наступний слот для запису (продюсери)
+    private volatile long head;                       // наступний слот для читання (лише писар)
+    private volatile boolean sleeping;                // писар припаркований або ось-ось паркується
+
+    private final LongAdder dropped = new LongAdder();
+    private final Writer out;
+    private final Thread writer;
+    private final LineFormatter formatter = new LineFormatter(); // лише потік-писар
+    private volatile Level threshold;
+    private volatile boolean running = true;
+
+    AsyncLog(int capacity, Level threshold, OutputStream stream) {
+        int size = 1;
+        while (size < capacity) size <<= 1;
+        this.slots = new Event[size];
+        for (int i = 0; i < size; i++) slots[i] = new Event(i);
+        this.mask = size - 1;
+        this.threshold = threshold;
+        this.out = new BufferedWriter(new OutputStreamWriter(stream, Charset.defaultCharset()), 1 << 16);
+        this.writer = new Thread(this::drainLoop, "AsyncLog-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    static AsyncLog fromSystemProperties() {
+        Level level = Level.valueOf(System.getProperty("lb1.log.level", "INFO").trim().toUpperCase(Locale.ROOT));
+        return new AsyncLog(Integer.getInteger("lb1.log.buffer", 8192), level, System.out);
+    }
+
+    boolean isEnabled(Level level) {
+        return ENABLED && level != Level.OFF && level.ordinal() >= threshold.ordinal();
+    }
+
+    void setThreshold(Level level) { this.threshold = level; }
+
+    // Час події — один System.currentTimeMillis() на подію; решту робить писар
+    void log(Level level, String who, String msg) {
+        if (!isEnabled(level)) return;
+        if (!offer(System.currentTimeMillis(), who, msg)) {
+            dropped.increment();
+        }
+    }
+
+    long droppedCount() { return dropped.sum(); }
+
+    // Дочекатися, поки писар виведе все, що вже в буфері, і зупинити його
+    @Override public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean offer(long timeMs, String who, String msg) {
+        while (true) {
+            long t = tail.get();
+            if (t - head >= slots.length) return false;
+            if (tail.compareAndSet(t, t + 1)) {
+                Event e = slots[(int) (t & mask)];
+                e.timeMs = timeMs;
+                e.who = who;
+                e.msg = msg;
+                e.seq = t + 1; // публікація: поля записано до volatile seq
+                // Писар паркується, лише побачивши порожній буфер, тож будимо його тільки
+                // на переході "порожньо -> є подія". sleeping він ставить до останньої
+                // перевірки буфера, а ми читаємо після публікації — хтось із двох побачить іншого
+                if (sleeping) LockSupport.unpark(writer);
+                return true;
+            }
+        }
+    }
+
+    private boolean published(long h) {
+        return slots[(int) (h & mask)].seq == h + 1;
+    }
+
+    private void drainLoop() {
+        while (true) {
+            boolean wrote = drain();
+            if (!wrote) {
+                if (!running && head == tail.get()) break;
+                sleeping = true;
+                if (running && !published(head)) LockSupport.park(this);
+                sleeping = false;
+            }
+        }
+        flush();
+    }
+
+    // Слот, який продюсер уже зайняв, але ще не заповнив, ще не опублікований —
+    // зупиняємось на ньому; продюсер розбудить писаря, коли допише
+    private boolean drain() {
+        long h = head;
+        boolean wrote = false;
+        while (published(h)) {
+            Event e = slots[(int) (h & mask)];
+            long timeMs = e.timeMs;
+            String who = e.who;
+            String msg = e.msg;
+            e.who = null;
+            e.msg = null;
+            head = ++h; // після цього слот може зайняти продюсер
+            try {
+                formatter.write(out, timeMs, who, msg);
+            } catch (IOException ex) {
+                dropped.increment();
+            }
+            wrote = true;
+        }
+        if (wrote) flush();
+        return wrote;
+    }
+
+    private void flush() {
+        try {
+            out.flush();
+        } catch (IOException ignored) {
+            // консоль недоступна — нічого не вдієш
+        }
+    }
+
+    // "[HH:mm:ss.SSS] who        | msg" прямо в перевикористовуваний char[]:
+    // закешований рядок "HH:mm:ss" перераховується раз на секунду, мілісекунди — дописуються
+    private final class LineFormatter {
+        private final ZoneId zone = ZoneId.systemDefault();
+        private final char[] hms = new char[8];
+        private long cachedSecond = Long.MIN_VALUE;
+        private char[] line = new char[128];
+
+        void write(Writer w, long nowMs, String who, String msg) throws IOException {
+            long second = Math.floorDiv(nowMs, 1000);
+            if (second != cachedSecond) {
+                LocalTime t = LocalTime.ofInstant(Instant.ofEpochSecond(second), zone);
+                put2(0, t.getHour());
+                hms[2] = ':';
+                put2(3, t.getMinute());
+                hms[5] = ':';
+                put2(6, t.getSecond());
+                cachedSecond = second;
+            }
+            int ms = Math.floorMod(nowMs, 1000);
+
+            int need = 16 + Math.max(who.length(), 10) + 3 + msg.length() + 1;
+            if (line.length < need) line = new char[Math.max(need, line.length * 2)];
+            char[] c = line;
+            int n = 0;
+            c[n++] = '[';
+            System.arraycopy(hms, 0, c, n, 8);
+            n += 8;
+            c[n++] = '.';
+            c[n++] = (char) ('0' + ms / 100);
+            c[n++] = (char) ('0' + ms / 10 % 10);
+            c[n++] = (char) ('0' + ms % 10);
+            c[n++] = ']';
+            c[n++] = ' ';
+            who.getChars(0, who.length(), c, n);
+            n += who.length();
+            for (int pad = who.length(); pad < 10; pad++) c[n++] = ' ';
+            c[n++] = ' ';
+            c[n++] = '|';
+            c[n++] = ' ';
+            msg.getChars(0, msg.length(), c, n);
+            n += msg.length();
+            c[n++] = '\n';
+            w.write(c, 0, n);
+        }
+
+        private void put2(int at, int value) {
+            hms[at] = (char) ('0' + value / 10);
+            hms[at + 1] = (char) ('0' + value % 10);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package lb1;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Випадковий вибір товару: старий спосіб (new ArrayList<>(store.all()) на кожен вибір)
+ * проти Store.randomProduct на каталогах від 10 до 1M SKU.
+ * Для кожного способу — нс/вибір і байти алокацій/вибір (поточний потік).
+ *
+ * Run: java -cp . lb1.CatalogBenchmark [maxSkus=1000000]
+ */
+public class CatalogBenchmark {
+
+    private static final long MEASURE_NANOS = 300_000_000L; // ~300 мс на кожен замір
+
+    public static void main(String[] args) {
+        int maxSkus = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        System.out.printf("%10s %16s %16s %16s %16s%n",
+                "SKUs", "copy ns/op", "copy B/op", "index ns/op", "index B/op");
+
+        for (int skus = 10; skus <= maxSkus; skus *= 10) {
+            Main.Store store = new Main.Store();
+            for (int i = 0; i < skus; i++) {
+                store.addProduct(new Main.Product("SKU-" + i, 1));
+            }
+
+            Random rnd = new Random(42);
+            measure(() -> copyAndPick(store, rnd)); // прогрів
+            measure(() -> store.randomProduct(rnd));
+            double[] copy = measure(() -> copyAndPick(store, rnd));
+            double[] index = measure(() -> store.randomProduct(rnd));
+
+            System.out.printf("%,10d %,16.1f %,16.0f %,16.1f %,16.0f%n",
+                    skus, copy[0], copy[1], index[0], index[1]);
+        }
+    }
+
+    // Так робили Admin.randomProduct і Buyer.pickProduct до появи індексу
+    private static Main.Product copyAndPick(Main.Store store, Random rnd) {
+        List<Main.Product> list = new ArrayList<>(store.all());
+        return list.get(rnd.nextInt(list.size()));
+    }
+
+    private interface Pick {
+        Main.Product pick();
+    }
+
+    // {нс на операцію, байт алокацій на операцію}
+    private static double[] measure(Pick pick) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+
+        long ops = 0;
+        int sink = 0;
+        long allocStart = threads.getThreadAllocatedBytes(tid);
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int i = 0; i < 64; i++) sink += pick.pick().name.length();
+            ops += 64;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MEASURE_NANOS);
+        long allocated = threads.getThreadAllocatedBytes(tid) - allocStart;
+
+        if (sink == 42) System.out.print(""); // не даємо JIT викинути цикл
+        return new double[]{(double) elapsed / ops, (double) allocated / ops};
+    }
+}
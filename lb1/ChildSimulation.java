@@ -0,0 +1,47 @@
+package lb1;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Запуск lb1.Main в окремій JVM і розбір його рядка REPORT (key=value через пробіл).
+// Окрема JVM — щоб прогони не ділили heap, пік RSS і статичні метрики.
+final class ChildSimulation {
+
+    private ChildSimulation() { }
+
+    // null — дочірня JVM не надрукувала REPORT (наприклад, режим недоступний на цьому JDK)
+    static Map<String, String> run(List<String> jvmOptions, List<String> mainArgs)
+            throws IOException, InterruptedException {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        cmd.add("-Dlb1.log.level=OFF");
+        cmd.add("-Dlb1.metrics.reportMs=0");
+        cmd.addAll(jvmOptions);
+        cmd.add("-cp");
+        cmd.add(System.getProperty("java.class.path"));
+        cmd.add(Main.class.getName());
+        cmd.addAll(mainArgs);
+
+        Process process = new ProcessBuilder(cmd).redirectErrorStream(true).start();
+        Map<String, String> report = null;
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.startsWith("REPORT ")) continue;
+                report = new HashMap<>();
+                for (String kv : line.substring(7).split(" ")) {
+                    int eq = kv.indexOf('=');
+                    report.put(kv.substring(0, eq), kv.substring(eq + 1));
+                }
+            }
+        }
+        process.waitFor();
+        return report;
+    }
+}
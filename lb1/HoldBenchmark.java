@@ -0,0 +1,65 @@
+package lb1;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Навантаження на колесо таймерів: мільйони одночасних резервів, половину комітимо,
+ * решта мусить повернутись на склад після TTL. Наприкінці перевіряємо, що
+ * залишок == початковий - закомічені.
+ *
+ * Run: java -cp . lb1.HoldBenchmark [holds=2000000] [threads=8]
+ */
+public class HoldBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int holds = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int threadCount = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+
+        Main.Product product = new Main.Product("Bulk", holds, Main.InventoryEngine.STRIPED);
+        LongAdder committed = new LongAdder();
+        long expiredBefore = Main.HOLDS.expiredCount();
+
+        List<Thread> threads = new ArrayList<>();
+        int perThread = holds / threadCount;
+        long start = System.nanoTime();
+        for (int t = 0; t < threadCount; t++) {
+            threads.add(new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                try {
+                    for (int i = 0; i < perThread; i++) {
+                        Main.Hold hold = product.reserve(500 + rnd.nextInt(2_000));
+                        if (hold == null) throw new IllegalStateException("stock must cover every hold");
+                        if (rnd.nextBoolean() && hold.commit()) committed.increment();
+                    }
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread t : threads) t.join();
+        long reserveNanos = System.nanoTime() - start;
+
+        long total = (long) perThread * threadCount;
+        long expectedExpired = total - committed.sum();
+        System.out.printf("Reserved %,d holds in %.0f ms (%,.0f holds/sec), committed %,d%n",
+                total, reserveNanos / 1e6, total / (reserveNanos / 1e9), committed.sum());
+        System.out.printf("Outstanding after reserve: %,d (stock left %,d)%n", expectedExpired, product.available());
+
+        // Чекаємо, поки колесо поверне всі некомічені резерви (макс. TTL 2.5 с + запас)
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (Main.HOLDS.expiredCount() - expiredBefore < expectedExpired && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        long reclaimed = Main.HOLDS.expiredCount() - expiredBefore;
+        long drainMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("Reclaimed %,d holds, all done %d ms after start%n", reclaimed, drainMs);
+        long expectedStock = holds - committed.sum();
+        System.out.printf("Final stock %,d, expected %,d -> %s%n", product.available(), expectedStock,
+                product.available() == expectedStock ? "OK" : "MISMATCH");
+    }
+}
@@ -0,0 +1,76 @@
+package lb1;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Порівняння рушіїв залишку на одному "гарячому" товарі:
+ * N покупців безперервно викликають tryBuy, один поповнювач тримає запас.
+ *
+ * Run: java -cp . lb1.InventoryBenchmark [buyers=256] [seconds=3]
+ */
+public class InventoryBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int buyers = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        System.out.printf("Buyers: %d, duration: %d s per engine%n%n", buyers, seconds);
+        System.out.printf("%-18s %15s %15s%n", "Engine", "purchases/sec", "sold-out/sec");
+
+        for (Main.InventoryEngine engine : Main.InventoryEngine.values()) {
+            run(engine, buyers, seconds * 1000L); // прогрів
+            Result r = run(engine, buyers, seconds * 1000L);
+            System.out.printf("%-18s %,15.0f %,15.0f%n", engine, r.purchasesPerSec, r.soldOutPerSec);
+        }
+    }
+
+    private static Result run(Main.InventoryEngine engine, int buyerCount, long durationMs)
+            throws InterruptedException {
+        Main.Product hot = new Main.Product("Hot", 0, engine);
+        LongAdder purchases = new LongAdder();
+        LongAdder soldOut = new LongAdder();
+        List<Thread> threads = new ArrayList<>();
+
+        // Поповнювач: тримає запас нижче 10k, щоб покупці інколи впирались у нуль
+        threads.add(new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (hot.available() < 10_000) hot.addStock(512);
+                else Thread.onSpinWait();
+            }
+        }, "Restocker"));
+
+        for (int i = 0; i < buyerCount; i++) {
+            threads.add(new Thread(() -> {
+                try {
+                    while (!Thread.currentThread().isInterrupted()) {
+                        if (hot.tryBuy(1)) purchases.increment();
+                        else soldOut.increment();
+                    }
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "Buyer-" + i));
+        }
+
+        threads.forEach(Thread::start);
+        long start = System.nanoTime();
+        Thread.sleep(durationMs);
+        threads.forEach(Thread::interrupt);
+        double elapsedSec = (System.nanoTime() - start) / 1e9;
+        for (Thread t : threads) t.join();
+
+        return new Result(purchases.sum() / elapsedSec, soldOut.sum() / elapsedSec);
+    }
+
+    private static final class Result {
+        final double purchasesPerSec;
+        final double soldOutPerSec;
+
+        Result(double purchasesPerSec, double soldOutPerSec) {
+            this.purchasesPerSec = purchasesPerSec;
+            this.soldOutPerSec = soldOutPerSec;
+        }
+    }
+}
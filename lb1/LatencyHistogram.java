@@ -0,0 +1,92 @@
+package lb1;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// ====== Гістограма затримок у стилі HDR ======
+// Лог-лінійні кошики: 32 підкошики на кожен степінь двійки (похибка <= ~3%),
+// діапазон — від 1 нс до ~18 хв. Лічильники розкладені по смугах (як у LongAdder),
+// і кожна смуга виділяється лише тоді, коли в неї вперше пишуть.
+final class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int MAX_EXP = 40;
+    static final int BUCKETS = SUB + (MAX_EXP - SUB_BITS + 1) * SUB;
+
+    private static final int MAX_STRIPES = 8;
+    private static final int STRIPE_MASK;
+
+    static {
+        int stripes = 1;
+        int cpus = Runtime.getRuntime().availableProcessors();
+        while (stripes < cpus && stripes < MAX_STRIPES) stripes <<= 1;
+        STRIPE_MASK = stripes - 1;
+    }
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPE_MASK + 1);
+
+    void record(long nanos) {
+        int s = (int) ((Thread.currentThread().getId() * 0x9E3779B97F4A7C15L) >>> 32) & STRIPE_MASK;
+        AtomicLongArray counts = stripes.get(s);
+        if (counts == null) {
+            stripes.compareAndSet(s, null, new AtomicLongArray(BUCKETS));
+            counts = stripes.get(s);
+        }
+        counts.incrementAndGet(bucketOf(nanos));
+    }
+
+    // Сума по смугах; не атомарна відносно записувачів, але для звіту цього досить
+    long[] snapshot() {
+        long[] total = new long[BUCKETS];
+        for (int s = 0; s < stripes.length(); s++) {
+            AtomicLongArray counts = stripes.get(s);
+            if (counts == null) continue;
+            for (int b = 0; b < BUCKETS; b++) total[b] += counts.get(b);
+        }
+        return total;
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB) return (int) Math.max(value, 0);
+        int exp = 63 - Long.numberOfLeadingZeros(value);
+        if (exp > MAX_EXP) return BUCKETS - 1;
+        int sub = (int) (value >>> (exp - SUB_BITS)) - SUB;
+        return SUB + (exp - SUB_BITS) * SUB + sub;
+    }
+
+    // Верхня межа кошика — так percentile ніколи не занижує затримку
+    static long upperBound(int bucket) {
+        if (bucket < SUB) return bucket;
+        int exp = (bucket - SUB) / SUB + SUB_BITS;
+        long sub = (bucket - SUB) % SUB;
+        long width = 1L << (exp - SUB_BITS);
+        return ((SUB + sub) << (exp - SUB_BITS)) + width - 1;
+    }
+
+    static long[] minus(long[] current, long[] previous) {
+        long[] diff = new long[BUCKETS];
+        for (int b = 0; b < BUCKETS; b++) diff[b] = current[b] - previous[b];
+        return diff;
+    }
+
+    static long percentile(long[] counts, double p) {
+        long total = 0;
+        for (long c : counts) total += c;
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(total * p);
+        long seen = 0;
+        for (int b = 0; b < counts.length; b++) {
+            seen += counts[b];
+            if (seen >= Math.max(rank, 1)) return upperBound(b);
+        }
+        return upperBound(counts.length - 1);
+    }
+
+    static String describe(long[] counts) {
+        long n = 0;
+        for (long c : counts) n += c;
+        return String.format(Locale.ROOT, "n=%d p50=%.3fms p99=%.3fms p999=%.3fms", n,
+                percentile(counts, 0.50) / 1e6, percentile(counts, 0.99) / 1e6, percentile(counts, 0.999) / 1e6);
+    }
+}
@@ -0,0 +1,351 @@
+package lb1;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Детермінований генератор навантаження і повтор трас для магазину lb1.
+ *
+ * - Усі випадкові рішення беруться з одного Random(seed): той самий seed -> та сама траса.
+ * - Час симульований: події мають мітки часу від 0, і прогін іде з будь-якою швидкістю
+ *   (speed=0 — так швидко, як можна; speed=10 — удесятеро швидше за реальний час).
+ * - Прибуття покупців: poisson (експоненційні інтервали) або bursty (сплески ON/OFF
+ *   з тим самим середнім темпом). Вибір товару — Zipf, тож є "гарячі" товари.
+ * - Робочі години й адмін моделюються як у Main: 2.5с відкрито / 1.5с зачинено,
+ *   1..restock (за замовчуванням 3) одиниці випадковому товару раз на 1.2с. Покупці, що прийшли до зачиненого
+ *   магазину, чекають під дверима і купують одразу після відкриття.
+ *
+ * Трасу можна записати у файл і потім повторити проти кожного InventoryEngine:
+ * спершу детермінований однопотоковий прогін у симульованому часі, потім
+ * багатопотоковий повтор на пропускну здатність.
+ *
+ * Run: java -cp . lb1.LoadGenerator [seed=42] [arrival=poisson|bursty] [rate=2000] [seconds=60]
+ *                                  [products=100] [zipf=1.0] [restock=3] [threads=8] [speed=0]
+ *                                  [record=trace.bin | replay=trace.bin]
+ */
+public class LoadGenerator {
+
+    static final byte BUY = 0;
+    static final byte RESTOCK = 1;
+
+    private static final long OPEN_NANOS = TimeUnit.MILLISECONDS.toNanos(2500);
+    private static final long CLOSED_NANOS = TimeUnit.MILLISECONDS.toNanos(1500);
+    private static final long RESTOCK_EVERY_NANOS = TimeUnit.MILLISECONDS.toNanos(1200);
+
+    // ====== Траса: події в порядку симульованого часу ======
+    static final class Trace {
+        private static final int MAGIC = 0x4C423154; // "LB1T"
+
+        final String[] products;
+        final int[] initialStock;
+        long[] times = new long[1024];
+        byte[] types = new byte[1024];
+        int[] productIds = new int[1024];
+        int[] units = new int[1024];
+        int size;
+
+        Trace(String[] products, int[] initialStock) {
+            this.products = products;
+            this.initialStock = initialStock;
+        }
+
+        void add(long timeNanos, byte type, int product, int amount) {
+            if (size == times.length) {
+                int n = size * 2;
+                times = Arrays.copyOf(times, n);
+                types = Arrays.copyOf(types, n);
+                productIds = Arrays.copyOf(productIds, n);
+                units = Arrays.copyOf(units, n);
+            }
+            times[size] = timeNanos;
+            types[size] = type;
+            productIds[size] = product;
+            units[size] = amount;
+            size++;
+        }
+
+        void write(Path file) throws IOException {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(products.length);
+                for (int i = 0; i < products.length; i++) {
+                    out.writeUTF(products[i]);
+                    out.writeInt(initialStock[i]);
+                }
+                out.writeInt(size);
+                for (int i = 0; i < size; i++) {
+                    out.writeLong(times[i]);
+                    out.writeByte(types[i]);
+                    out.writeInt(productIds[i]);
+                    out.writeInt(units[i]);
+                }
+            }
+        }
+
+        static Trace read(Path file) throws IOException {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+                if (in.readInt() != MAGIC) throw new IOException("Not a lb1 trace: " + file);
+                int n = in.readInt();
+                String[] names = new String[n];
+                int[] stock = new int[n];
+                for (int i = 0; i < n; i++) {
+                    names[i] = in.readUTF();
+                    stock[i] = in.readInt();
+                }
+                Trace trace = new Trace(names, stock);
+                int events = in.readInt();
+                for (int i = 0; i < events; i++) {
+                    trace.add(in.readLong(), in.readByte(), in.readInt(), in.readInt());
+                }
+                return trace;
+            }
+        }
+    }
+
+    // ====== Процеси прибуття ======
+    interface Arrivals {
+        // Інтервал до наступного прибуття, нс
+        long next(Random rnd);
+    }
+
+    static Arrivals poisson(double perSecond) {
+        double meanNanos = 1e9 / perSecond;
+        return rnd -> (long) Math.ceil(-Math.log(1 - rnd.nextDouble()) * meanNanos);
+    }
+
+    // Сплески ON/OFF (експоненційні тривалості з середніми onMs/offMs); під час ON темп
+    // підвищено так, щоб середній темп залишився perSecond, під час OFF прибуттів немає
+    static Arrivals bursty(double perSecond, long onMs, long offMs) {
+        double onRate = perSecond * (onMs + offMs) / onMs;
+        double onMean = TimeUnit.MILLISECONDS.toNanos(onMs);
+        double offMean = TimeUnit.MILLISECONDS.toNanos(offMs);
+        double gapMean = 1e9 / onRate;
+        return new Arrivals() {
+            private long onLeft = -1;
+
+            @Override public long next(Random rnd) {
+                if (onLeft < 0) onLeft = exp(rnd, onMean);
+                long gap = exp(rnd, gapMean);
+                long waited = 0;
+                while (gap > onLeft) { // сплеск скінчився — пауза OFF і новий сплеск
+                    gap -= onLeft;
+                    waited += onLeft + exp(rnd, offMean);
+                    onLeft = exp(rnd, onMean);
+                }
+                onLeft -= gap;
+                return waited + gap;
+            }
+        };
+    }
+
+    private static long exp(Random rnd, double mean) {
+        return (long) Math.ceil(-Math.log(1 - rnd.nextDouble()) * mean);
+    }
+
+    // Zipf(s) по n товарах через накопичену функцію розподілу
+    static final class Zipf {
+        private final double[] cdf;
+
+        Zipf(int n, double s) {
+            cdf = new double[n];
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += 1 / Math.pow(i + 1, s);
+                cdf[i] = sum;
+            }
+            for (int i = 0; i < n; i++) cdf[i] /= sum;
+        }
+
+        int sample(Random rnd) {
+            int idx = Arrays.binarySearch(cdf, rnd.nextDouble());
+            return Math.min(idx >= 0 ? idx : -idx - 1, cdf.length - 1);
+        }
+    }
+
+    // ====== Генерація ======
+    static Trace generate(long seed, Arrivals arrivals, int productCount, double zipfS,
+                          int maxRestock, long durationNanos) {
+        Random rnd = new Random(seed);
+        String[] names = new String[productCount];
+        int[] stock = new int[productCount];
+        for (int i = 0; i < productCount; i++) {
+            names[i] = "SKU-" + i;
+            stock[i] = rnd.nextInt(3); // 0..2, як у стартовому каталозі Main
+        }
+        Trace trace = new Trace(names, stock);
+        Zipf zipf = new Zipf(productCount, zipfS);
+
+        long nextArrival = arrivals.next(rnd);
+        long nextRestock = RESTOCK_EVERY_NANOS;
+        while (true) {
+            long t = Math.min(nextArrival, nextRestock);
+            if (t >= durationNanos) break;
+            if (nextRestock <= nextArrival) {
+                trace.add(t, RESTOCK, rnd.nextInt(productCount), 1 + rnd.nextInt(maxRestock));
+                nextRestock += RESTOCK_EVERY_NANOS;
+            } else {
+                // прийшов до зачиненого магазину — купує в момент відкриття
+                trace.add(Math.max(t, nextOpening(t)), BUY, zipf.sample(rnd), 1);
+                nextArrival += arrivals.next(rnd);
+            }
+        }
+        sortByTime(trace);
+        return trace;
+    }
+
+    // Момент, коли магазин відкритий (t, якщо вже відкрито)
+    static long nextOpening(long t) {
+        long cycle = OPEN_NANOS + CLOSED_NANOS;
+        long inCycle = t % cycle;
+        return inCycle < OPEN_NANOS ? t : t - inCycle + cycle;
+    }
+
+    // Відкладені до відкриття покупки могли обігнати поповнення — стабільне сортування за часом
+    private static void sortByTime(Trace trace) {
+        Integer[] order = new Integer[trace.size];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Long.compare(trace.times[a], trace.times[b]));
+        Trace sorted = new Trace(trace.products, trace.initialStock);
+        for (int i : order) sorted.add(trace.times[i], trace.types[i], trace.productIds[i], trace.units[i]);
+        trace.times = sorted.times;
+        trace.types = sorted.types;
+        trace.productIds = sorted.productIds;
+        trace.units = sorted.units;
+    }
+
+    // ====== Повтор ======
+    static Main.Product[] stockFor(Trace trace, Main.InventoryEngine engine) {
+        Main.Product[] products = new Main.Product[trace.products.length];
+        for (int i = 0; i < products.length; i++) {
+            products[i] = new Main.Product(trace.products[i], trace.initialStock[i], engine);
+        }
+        return products;
+    }
+
+    // Однопотоковий прогін у симульованому часі: результат залежить лише від траси.
+    // speed > 0 — розтягуємо прогін на (тривалість траси / speed) реального часу.
+    static long[] replaySimulated(Trace trace, Main.InventoryEngine engine, double speed) throws InterruptedException {
+        Main.Product[] products = stockFor(trace, engine);
+        long bought = 0, soldOut = 0;
+        long wallStart = System.nanoTime();
+        for (int i = 0; i < trace.size; i++) {
+            if (speed > 0) {
+                long due = wallStart + (long) (trace.times[i] / speed);
+                long sleep = due - System.nanoTime();
+                if (sleep > 0) TimeUnit.NANOSECONDS.sleep(sleep);
+            }
+            Main.Product p = products[trace.productIds[i]];
+            if (trace.types[i] == RESTOCK) {
+                p.addStock(trace.units[i]);
+            } else if (p.tryBuy(trace.units[i], 0)) {
+                bought++;
+            } else {
+                soldOut++;
+            }
+        }
+        return new long[]{bought, soldOut, System.nanoTime() - wallStart};
+    }
+
+    // Багатопотоковий повтор без пауз: подія i дістається потоку i % threads
+    static long[] replayThroughput(Trace trace, Main.InventoryEngine engine, int threadCount) throws InterruptedException {
+        Main.Product[] products = stockFor(trace, engine);
+        long[][] perThread = new long[threadCount][2];
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            int worker = t;
+            threads.add(new Thread(() -> {
+                long bought = 0, soldOut = 0;
+                try {
+                    for (int i = worker; i < trace.size; i += threadCount) {
+                        Main.Product p = products[trace.productIds[i]];
+                        if (trace.types[i] == RESTOCK) p.addStock(trace.units[i]);
+                        else if (p.tryBuy(trace.units[i], 0)) bought++;
+                        else soldOut++;
+                    }
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+                perThread[worker][0] = bought;
+                perThread[worker][1] = soldOut;
+            }, "Replay-" + t));
+        }
+        long start = System.nanoTime();
+        threads.forEach(Thread::start);
+        for (Thread t : threads) t.join();
+        long elapsed = System.nanoTime() - start;
+
+        long bought = 0, soldOut = 0;
+        for (long[] r : perThread) {
+            bought += r[0];
+            soldOut += r[1];
+        }
+        return new long[]{bought, soldOut, elapsed};
+    }
+
+    // ====== Точка входу ======
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> opts = new HashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected key=value, got: " + a);
+            opts.put(a.substring(0, eq), a.substring(eq + 1));
+        }
+        int threads = Integer.parseInt(opts.getOrDefault("threads", "8"));
+        double speed = Double.parseDouble(opts.getOrDefault("speed", "0"));
+
+        Trace trace;
+        if (opts.containsKey("replay")) {
+            trace = Trace.read(Paths.get(opts.get("replay")));
+            System.out.printf("Loaded trace %s: %,d events, %d products%n",
+                    opts.get("replay"), trace.size, trace.products.length);
+        } else {
+            long seed = Long.parseLong(opts.getOrDefault("seed", "42"));
+            double rate = Double.parseDouble(opts.getOrDefault("rate", "2000"));
+            long seconds = Long.parseLong(opts.getOrDefault("seconds", "60"));
+            int products = Integer.parseInt(opts.getOrDefault("products", "100"));
+            double zipfS = Double.parseDouble(opts.getOrDefault("zipf", "1.0"));
+            int maxRestock = Integer.parseInt(opts.getOrDefault("restock", "3"));
+            String arrival = opts.getOrDefault("arrival", "poisson").toLowerCase(Locale.ROOT);
+            Arrivals arrivals;
+            switch (arrival) {
+                case "poisson": arrivals = poisson(rate); break;
+                case "bursty":  arrivals = bursty(rate, 200, 800); break;
+                default: throw new IllegalArgumentException("Unknown arrival distribution: " + arrival);
+            }
+
+            long genStart = System.nanoTime();
+            trace = generate(seed, arrivals, products, zipfS, maxRestock, TimeUnit.SECONDS.toNanos(seconds));
+            System.out.printf("Generated %,d events (seed=%d, %s %.0f/s, %d s simulated, %d products, zipf=%.2f) in %.0f ms%n",
+                    trace.size, seed, arrival, rate, seconds, products, zipfS, (System.nanoTime() - genStart) / 1e6);
+            if (opts.containsKey("record")) {
+                trace.write(Paths.get(opts.get("record")));
+                System.out.println("Trace recorded to " + opts.get("record"));
+            }
+        }
+        long simulatedNanos = trace.size == 0 ? 0 : trace.times[trace.size - 1];
+
+        System.out.printf("%n%-18s %10s %10s %12s %10s | %14s%n",
+                "Engine", "bought", "sold out", "sim wall ms", "x realtime", threads + "-thread ops/s");
+        for (Main.InventoryEngine engine : Main.InventoryEngine.values()) {
+            long[] sim = replaySimulated(trace, engine, speed);
+            replayThroughput(trace, engine, threads); // прогрів
+            long[] tp = replayThroughput(trace, engine, threads);
+            System.out.printf("%-18s %,10d %,10d %,12.1f %,10.0f | %,14.0f%n", engine, sim[0], sim[1],
+                    sim[2] / 1e6, simulatedNanos / (double) Math.max(sim[2], 1), trace.size / (tp[2] / 1e9));
+        }
+    }
+}
@@ -1,10 +1,21 @@
 package lb1;
 
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Internet Orders Simulation
@@ -13,51 +24,499 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * - Semaphores control stock
  * - Store has open/close windows (working hours)
  *
- * Run: javac Main.java && java Main
+ * Run: javac Main.java && java Main [platform|virtual] [buyers] [durationMs]
+ * Inventory engine: -Dlb1.inventory=semaphore|striped|striped-failfast
  */
 public class Main {
 
-    // Pretty time for logs
-    static final DateTimeFormatter TF = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+    // Async logger: actors never block on console I/O
+    static final AsyncLog LOG = AsyncLog.fromSystemProperties();
+
+    // Metrics are always on; -Dlb1.metrics.reportMs=0 only turns off the periodic printout
+    static final MetricsRegistry METRICS = new MetricsRegistry();
+
+    // One wheel reclaims every expired hold: 10 ms tick, 512 slots (~5 s per revolution)
+    static final TimerWheel HOLDS = new TimerWheel(10, 512);
+
+    // Checkout: hold lifetime and share of buyers who walk away without paying
+    static final long CHECKOUT_TTL_MS = Long.getLong("lb1.checkout.ttlMs", 400);
+    static final double ABANDON_RATE = Double.parseDouble(System.getProperty("lb1.checkout.abandonRate", "0.1"));
 
     // ------------ Domain ------------
 
-    // Товар з семафором як лічильником залишку
+    // Товар; залишок зберігає обраний рушій (за замовчуванням — семафор)
     static class Product {
         final String name;
-        final Semaphore stock; // permits == units in stock
+        final Inventory stock; // units in stock
+        final MetricsRegistry.ProductMetrics metrics;
 
         Product(String name, int initialStock) {
+            this(name, initialStock, ENGINE);
+        }
+
+        Product(String name, int initialStock, InventoryEngine engine) {
             this.name = name;
-            this.stock = new Semaphore(Math.max(initialStock, 0), true);
+            this.stock = engine.create(Math.max(initialStock, 0));
+            this.metrics = METRICS.forProduct(name);
         }
 
         // Адмін додає штучки в наявність
         void addStock(int amount) {
             if (amount <= 0) return;
             stock.release(amount);
+            metrics.recordRestock(amount);
         }
 
         // Покупець пробує купити одиницю
         boolean tryBuy(long timeoutMs) throws InterruptedException {
-            return stock.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+            return tryBuy(1, timeoutMs);
+        }
+
+        // Кілька одиниць одразу (рядок кошика): всі або жодної
+        boolean tryBuy(int units, long timeoutMs) throws InterruptedException {
+            long start = System.nanoTime();
+            boolean ok = stock.tryAcquire(units, timeoutMs);
+            metrics.recordTryBuy(ok, units, System.nanoTime() - start);
+            return ok;
+        }
+
+        // Те саме, але без обліку покупки: рядок кошика, який ще можна відкотити.
+        // Покупку записує placeOrder, коли зарезервовано весь кошик
+        boolean acquire(int units, long timeoutMs) throws InterruptedException {
+            long start = System.nanoTime();
+            boolean ok = stock.tryAcquire(units, timeoutMs);
+            metrics.recordAcquire(ok, System.nanoTime() - start);
+            return ok;
+        }
+
+        int available() { return stock.available(); }
+
+        Hold reserve(long ttlMs) throws InterruptedException {
+            return reserve(0, ttlMs);
+        }
+
+        // Резерв одиниці на ttlMs: далі commit (куплено) або cancel (повернути).
+        // Якщо ні те, ні інше не сталося вчасно — колесо таймерів поверне одиницю саме.
+        // null — товару немає і за waitMs не з'явилось
+        Hold reserve(long waitMs, long ttlMs) throws InterruptedException {
+            long start = System.nanoTime();
+            boolean ok = stock.tryAcquire(waitMs);
+            metrics.recordAcquire(ok, System.nanoTime() - start);
+            if (!ok) return null;
+            Hold hold = new Hold(this);
+            HOLDS.schedule(hold, ttlMs);
+            return hold;
+        }
+    }
+
+    // Токен резерву; стан змінюється одним CAS, тож commit/cancel/expire взаємовиключні
+    static final class Hold extends TimerWheel.Entry {
+        private static final int HELD = 0, COMMITTED = 1, CANCELLED = 2, EXPIRED = 3;
+        private static final AtomicIntegerFieldUpdater<Hold> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Hold.class, "state");
+
+        final Product product;
+        private volatile int state = HELD;
+
+        Hold(Product product) { this.product = product; }
+
+        // false — резерв уже прострочено (або скасовано), одиниця повернулась на склад
+        boolean commit() {
+            if (!STATE.compareAndSet(this, HELD, COMMITTED)) return false;
+            product.metrics.recordPurchase(1);
+            return true;
+        }
+
+        boolean cancel() {
+            if (!STATE.compareAndSet(this, HELD, CANCELLED)) return false;
+            product.stock.release(1);
+            return true;
         }
 
-        int available() { return stock.availablePermits(); }
+        boolean isCommitted() { return state == COMMITTED; }
+
+        @Override boolean isPending() { return state == HELD; }
+
+        @Override boolean expire() {
+            if (!STATE.compareAndSet(this, HELD, EXPIRED)) return false;
+            product.stock.release(1);
+            product.metrics.recordExpiredHold();
+            return true;
+        }
     }
 
     // Магазин: каталоги, робочі години
     static class Store {
         private final Map<String, Product> catalog = new ConcurrentHashMap<>();
+        private final ProductIndex index = new ProductIndex(); // той самий набір, але з доступом за індексом
         private final AtomicBoolean open = new AtomicBoolean(false);
+        private final LongAdder purchases = new LongAdder();
+
+        // Ворота відкриття: покупці паркуються на future, setOpen(true) завершує його,
+        // setOpen(false) ставить новий — один future на кожен цикл закрито/відкрито
+        private volatile CompletableFuture<Void> opened = new CompletableFuture<>();
+
+        // Затримка "відкрили -> перша покупка" для кожного циклу
+        private volatile long openedAtNanos;
+        private final AtomicBoolean awaitingFirstPurchase = new AtomicBoolean(false);
+        private final LongAdder reopenLatencyTotalNanos = new LongAdder();
+        private final LongAdder reopenLatencyCount = new LongAdder();
+        private final LongAccumulator reopenLatencyMaxNanos = new LongAccumulator(Math::max, 0);
+
+        // catalog і index змінюються разом під локом індексу; читачі лок не беруть
+        void addProduct(Product p) {
+            synchronized (index) {
+                Product old = catalog.put(p.name, p);
+                if (old == null) index.add(p);
+                else index.replace(old, p);
+            }
+        }
+
+        Product removeProduct(String name) {
+            synchronized (index) {
+                Product old = catalog.remove(name);
+                if (old != null) index.remove(old);
+                return old;
+            }
+        }
 
-        void addProduct(Product p) { catalog.put(p.name, p); }
         Product getProduct(String name) { return catalog.get(name); }
 
+        // O(1) і без алокацій; null, лише якщо каталог порожній
+        Product randomProduct(Random rnd) { return index.random(rnd); }
+
+        Product productAt(int i) { return index.get(i); }
+
+        int size() { return index.size(); }
+
+        boolean placeOrder(Map<String, Integer> cart) throws InterruptedException {
+            return placeOrder(cart, 0);
+        }
+
+        // Кошик резервується цілком або не резервується взагалі.
+        // Рядки беремо в порядку назв товарів — однаковому для всіх покупців, тож
+        // два кошики ніколи не тримають частини один одного по колу (немає deadlock).
+        // Покупки в метриках товарів з'являються лише після успіху всього кошика,
+        // тож відкочений кошик не завищує purchases.
+        boolean placeOrder(Map<String, Integer> cart, long timeoutMs) throws InterruptedException {
+            SortedMap<String, Integer> ordered = new TreeMap<>(cart);
+            Product[] lines = new Product[ordered.size()];
+            int[] units = new int[lines.length];
+
+            int n = 0;
+            for (Map.Entry<String, Integer> e : ordered.entrySet()) {
+                Product p = catalog.get(e.getKey());
+                if (p == null) {
+                    throw new IllegalArgumentException("Unknown product: " + e.getKey());
+                }
+                if (e.getValue() == null || e.getValue() <= 0) {
+                    throw new IllegalArgumentException("Quantity must be > 0: " + e.getKey());
+                }
+                lines[n] = p;
+                units[n] = e.getValue();
+                n++;
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(timeoutMs, 0));
+            int taken = 0;
+            try {
+                for (; taken < n; taken++) {
+                    long leftMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (!lines[taken].acquire(units[taken], Math.max(leftMs, 0))) {
+                        rollback(lines, units, taken);
+                        return false;
+                    }
+                }
+                for (int i = 0; i < n; i++) {
+                    lines[i].metrics.recordPurchase(units[i]);
+                }
+                return true;
+            } catch (InterruptedException ie) {
+                rollback(lines, units, taken);
+                throw ie;
+            }
+        }
+
+        // Повертаємо вже зарезервоване у зворотному порядку
+        private static void rollback(Product[] lines, int[] units, int taken) {
+            for (int i = taken - 1; i >= 0; i--) {
+                lines[i].stock.release(units[i]);
+            }
+        }
+
         boolean isOpen() { return open.get(); }
-        void setOpen(boolean value) { open.set(value); }
+
+        synchronized void setOpen(boolean value) {
+            if (value) {
+                openedAtNanos = System.nanoTime();
+                awaitingFirstPurchase.set(true);
+                open.set(true);
+                opened.complete(null);
+            } else {
+                if (opened.isDone()) opened = new CompletableFuture<>();
+                open.set(false);
+            }
+        }
+
+        // Паркує покупця до найближчого setOpen(true); якщо відкрито — повертається одразу
+        void awaitOpen() throws InterruptedException {
+            while (!open.get()) {
+                CompletableFuture<Void> gate = opened;
+                if (open.get()) return;
+                try {
+                    gate.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Open gate completed exceptionally", e);
+                }
+            }
+        }
 
         Collection<Product> all() { return catalog.values(); }
+
+        void recordPurchase() {
+            purchases.increment();
+            if (awaitingFirstPurchase.get() && awaitingFirstPurchase.compareAndSet(true, false)) {
+                long latency = System.nanoTime() - openedAtNanos;
+                reopenLatencyTotalNanos.add(latency);
+                reopenLatencyCount.increment();
+                reopenLatencyMaxNanos.accumulate(latency);
+            }
+        }
+
+        long purchases() { return purchases.sum(); }
+
+        // Середня затримка відкриття -> перша покупка, мс (-1 — ще не було жодного циклу з покупкою)
+        double reopenToFirstPurchaseAvgMs() {
+            long n = reopenLatencyCount.sum();
+            return n == 0 ? -1 : reopenLatencyTotalNanos.sum() / (n * 1e6);
+        }
+
+        double reopenToFirstPurchaseMaxMs() { return reopenLatencyMaxNanos.get() / 1e6; }
+    }
+
+    // Масив товарів поруч із catalog: O(1) доступ за індексом і випадковий вибір.
+    // Зберігається шматками по 4096, тож додавання не копіює весь масив, а
+    // видалення переставляє останній товар на місце видаленого (swap-with-last).
+    // Записувачі (add/replace/remove) серіалізуються монітором самого індексу (synchronized);
+    // читачі не блокуються — лише читають volatile size і chunks.
+    static final class ProductIndex {
+        private static final int CHUNK_BITS = 12;
+        private static final int CHUNK = 1 << CHUNK_BITS;
+
+        private volatile Product[][] chunks = new Product[1][CHUNK];
+        private volatile int size;
+        private final Map<Product, Integer> positions = new IdentityHashMap<>(); // guarded by this
+
+        int size() { return size; }
+
+        // Може повернути null, якщо паралельне видалення вже прибрало цей слот
+        Product get(int i) {
+            Product[][] c = chunks;
+            int chunk = i >>> CHUNK_BITS;
+            return chunk < c.length ? c[chunk][i & (CHUNK - 1)] : null;
+        }
+
+        Product random(Random rnd) {
+            while (true) {
+                int n = size;
+                if (n == 0) return null;
+                Product p = get(rnd.nextInt(n));
+                if (p != null) return p;
+            }
+        }
+
+        synchronized void add(Product p) {
+            int i = size;
+            int chunk = i >>> CHUNK_BITS;
+            if (chunk == chunks.length) {
+                Product[][] grown = Arrays.copyOf(chunks, chunks.length * 2); // копіюємо лише посилання на шматки
+                for (int k = chunks.length; k < grown.length; k++) grown[k] = new Product[CHUNK];
+                chunks = grown;
+            }
+            chunks[chunk][i & (CHUNK - 1)] = p;
+            positions.put(p, i);
+            size = i + 1; // публікація: елемент записано до volatile size
+        }
+
+        synchronized void replace(Product old, Product p) {
+            Integer i = positions.remove(old);
+            if (i == null) { add(p); return; }
+            chunks[i >>> CHUNK_BITS][i & (CHUNK - 1)] = p;
+            positions.put(p, i);
+        }
+
+        synchronized void remove(Product p) {
+            Integer i = positions.remove(p);
+            if (i == null) return;
+            int last = size - 1;
+            Product moved = get(last);
+            if (i != last) {
+                chunks[i >>> CHUNK_BITS][i & (CHUNK - 1)] = moved;
+                positions.put(moved, i);
+            }
+            size = last;
+            chunks[last >>> CHUNK_BITS][last & (CHUNK - 1)] = null;
+        }
+    }
+
+    // ------------ Inventory engines ------------
+
+    // Рушій залишку, що стоїть за Product.tryBuy/addStock/available
+    interface Inventory {
+        // Забрати одиницю, чекаючи не довше timeoutMs
+        default boolean tryAcquire(long timeoutMs) throws InterruptedException {
+            return tryAcquire(1, timeoutMs);
+        }
+
+        // Забрати units одиниць разом (всі або жодної)
+        boolean tryAcquire(int units, long timeoutMs) throws InterruptedException;
+
+        void release(int amount);
+
+        int available();
+    }
+
+    // Перемикач рушіїв, щоб порівнювати покупки/сек між ними
+    enum InventoryEngine {
+        SEMAPHORE, STRIPED, STRIPED_FAIL_FAST;
+
+        Inventory create(int initialStock) {
+            switch (this) {
+                case STRIPED:           return new StripedInventory(initialStock, false);
+                case STRIPED_FAIL_FAST: return new StripedInventory(initialStock, true);
+                default:                return new SemaphoreInventory(initialStock);
+            }
+        }
+
+        // "striped-failfast" -> STRIPED_FAIL_FAST
+        static InventoryEngine parse(String value) {
+            if (value == null || value.isBlank()) return SEMAPHORE;
+            return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT)
+                    .replace("FAILFAST", "FAIL_FAST"));
+        }
+    }
+
+    static final InventoryEngine ENGINE = InventoryEngine.parse(System.getProperty("lb1.inventory"));
+
+    // Початкова реалізація: справедливий семафор, дозвіл == одиниця товару
+    static final class SemaphoreInventory implements Inventory {
+        private final Semaphore permits;
+
+        SemaphoreInventory(int initialStock) {
+            this.permits = new Semaphore(initialStock, true);
+        }
+
+        @Override public boolean tryAcquire(int units, long timeoutMs) throws InterruptedException {
+            return permits.tryAcquire(units, timeoutMs, TimeUnit.MILLISECONDS);
+        }
+
+        @Override public void release(int amount) { permits.release(amount); }
+
+        @Override public int available() { return permits.availablePermits(); }
+    }
+
+    // Лічильник у стилі LongAdder: залишок розкладено по смугах (stripes), кожна на
+    // своїй кеш-лінії. Покупка — CAS у "свою" смугу, далі обхід решти; черги немає.
+    // Лок із умовою потрібен лише покупцям, які чекають поповнення (не fail-fast).
+    static final class StripedInventory implements Inventory {
+        private static final int PAD = 16; // 16 x long = 128 байт між сусідніми смугами
+        private static final int MAX_STRIPES = 64;
+
+        private final AtomicLongArray cells;
+        private final int mask;
+        private final boolean failFast;
+
+        private final AtomicInteger waiters = new AtomicInteger();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition restocked = lock.newCondition();
+
+        StripedInventory(int initialStock, boolean failFast) {
+            int stripes = 1;
+            int cpus = Runtime.getRuntime().availableProcessors();
+            while (stripes < cpus && stripes < MAX_STRIPES) stripes <<= 1;
+            this.cells = new AtomicLongArray(stripes * PAD);
+            this.mask = stripes - 1;
+            this.failFast = failFast;
+            cells.set(0, initialStock);
+        }
+
+        @Override public boolean tryAcquire(int units, long timeoutMs) throws InterruptedException {
+            if (tryTake(units)) return true;
+            if (failFast || timeoutMs <= 0) return false;
+
+            long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            waiters.incrementAndGet();
+            try {
+                lock.lockInterruptibly();
+                try {
+                    // release() сигналить під тим самим локом, тому пробудження не губиться
+                    while (!tryTake(units)) {
+                        if (nanos <= 0) return false;
+                        nanos = restocked.awaitNanos(nanos);
+                    }
+                    return true;
+                } finally {
+                    lock.unlock();
+                }
+            } finally {
+                waiters.decrementAndGet();
+            }
+        }
+
+        @Override public void release(int amount) {
+            cells.getAndAdd(home() * PAD, amount);
+            signalWaiters();
+        }
+
+        private void signalWaiters() {
+            if (waiters.get() > 0) {
+                lock.lock();
+                try {
+                    restocked.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        @Override public int available() {
+            long sum = 0;
+            for (int i = 0; i <= mask; i++) sum += cells.get(i * PAD);
+            return (int) Math.min(sum, Integer.MAX_VALUE);
+        }
+
+        // Частково зібране іншим покупцем на мить зникає зі смуг, і наш обхід може побачити
+        // нестачу, якої насправді немає (у STRIPED_FAIL_FAST це хибний SOLD OUT).
+        // Тому перед відмовою звіряємось зі справжньою сумою смуг і, якщо товару досить,
+        // пробуємо ще раз. Повтор один: при дуже щільних багатоодиничних покупках
+        // хибна відмова лишається можливою — кому це неприйнятно, тим SEMAPHORE
+        private boolean tryTake(int units) {
+            if (collect(units)) return true;
+            return available() >= units && collect(units);
+        }
+
+        // Збираємо units зі смуг; якщо разом не вистачило — повертаємо зібране
+        private boolean collect(int units) {
+            int start = home();
+            int taken = 0;
+            for (int i = 0; i <= mask && taken < units; i++) {
+                int idx = ((start + i) & mask) * PAD;
+                long v;
+                while (taken < units && (v = cells.get(idx)) > 0) {
+                    long n = Math.min(v, units - taken);
+                    if (cells.compareAndSet(idx, v, v - n)) taken += (int) n;
+                }
+            }
+            if (taken == units) return true;
+            if (taken > 0) release(taken);
+            return false;
+        }
+
+        // "Своя" смуга потоку: перемішаний id, щоб сусідні потоки не бились в одну
+        private int home() {
+            long id = Thread.currentThread().getId();
+            return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
     }
 
     // ------------ Actors (threads) ------------
@@ -93,20 +552,37 @@ public class Main {
 
     // Адміністратор: додає товари хвилями
     static class Admin implements Runnable {
+        // Мінімальна партія: поки накопичено менше, нічого не розподіляємо
+        private static final int BATCH = Integer.getInteger("lb1.replenish.batch", 3);
+
         private final Store store;
-        private final Random rnd = new Random();
+        private final ReplenishmentPolicy policy;
+        private final Random rnd;
+        private int budget; // отримані, але ще не розподілені одиниці
 
-        Admin(Store store) { this.store = store; }
+        Admin(Store store) { this(store, new ReplenishmentPolicy.RandomProduct(), new Random()); }
+
+        Admin(Store store, ReplenishmentPolicy policy, Random rnd) {
+            this.store = store;
+            this.policy = policy;
+            this.rnd = rnd;
+        }
 
         @Override public void run() {
-            log("ADMIN", "STARTED");
+            log("ADMIN", "STARTED (policy=" + policy + ")");
             try {
                 while (!Thread.currentThread().isInterrupted()) {
-                    // періодично поповнюємо випадковий товар
-                    Product p = randomProduct();
-                    int add = 1 + rnd.nextInt(3); // 1..3
-                    p.addStock(add);
-                    log("ADMIN", String.format("Added %d x %s (stock=%d)", add, p.name, p.available()));
+                    // надходження на склад те саме, що й раніше: 1..3 одиниці за ~1.2с
+                    budget += 1 + rnd.nextInt(3);
+                    if (budget >= BATCH) {
+                        // розподіляємо партію згідно з політикою, один addStock на товар
+                        for (Map.Entry<Product, Integer> e : policy.plan(store, budget, rnd).entrySet()) {
+                            Product p = e.getKey();
+                            p.addStock(e.getValue());
+                            budget -= e.getValue();
+                            if (AsyncLog.ENABLED) log("ADMIN", "Added " + e.getValue() + " x " + p.name + " (stock=" + p.available() + ")");
+                        }
+                    }
                     Thread.sleep(1200); // поповнення раз на ~1.2с
                 }
             } catch (InterruptedException ie) {
@@ -114,11 +590,6 @@ public class Main {
                 Thread.currentThread().interrupt();
             }
         }
-
-        private Product randomProduct() {
-            List<Product> list = new ArrayList<>(store.all());
-            return list.get(rnd.nextInt(list.size()));
-        }
     }
 
     // Покупець: намагається купувати, якщо відкрито
@@ -126,12 +597,18 @@ public class Main {
         private final String name;
         private final Store store;
         private final String desiredProduct;
-        private final Random rnd = new Random();
+        private final Random rnd;
+        private long wantingSince; // коли з'явилась поточна потреба (0 — немає)
 
         Buyer(String name, Store store, String desiredProduct) {
+            this(name, store, desiredProduct, new Random());
+        }
+
+        Buyer(String name, Store store, String desiredProduct, Random rnd) {
             this.name = name;
             this.store = store;
             this.desiredProduct = desiredProduct;
+            this.rnd = rnd;
         }
 
         @Override public void run() {
@@ -139,31 +616,41 @@ public class Main {
             try {
                 while (!Thread.currentThread().isInterrupted()) {
                     if (!store.isOpen()) {
-                        log(name, "WAITING (store closed)");
-                        Thread.sleep(300); // чекаємо відкриття
+                        waitForOpen();
                         continue;
                     }
 
+                    if (wantingSince == 0) wantingSince = System.nanoTime();
+
                     // Обираємо бажаний товар (або інший випадково)
                     Product p = pickProduct();
                     // Пауза імітує навігацію сайтом
                     Thread.sleep(150 + rnd.nextInt(200));
 
                     if (!store.isOpen()) {
-                        log(name, "WAITING (store closed)");
-                        Thread.sleep(300); // чекаємо відкриття
+                        waitForOpen();
                         continue;
                     }
                     
-                    // Спроба купити: якщо дефіцит — швидко тайм-аутимося
-                    boolean ok = p.tryBuy(200);
-                    if (ok) {
-                        log(name, String.format("BOUGHT 1 x %s (left=%d)", p.name, p.available()));
+                    // Резервуємо одиницю на час оформлення; якщо дефіцит — швидко тайм-аутимося
+                    Hold hold = p.reserve(200, CHECKOUT_TTL_MS);
+                    if (hold != null) {
                         // "оформлення" замовлення
                         Thread.sleep(120 + rnd.nextInt(200));
+                        if (rnd.nextDouble() < ABANDON_RATE) {
+                            // покинутий кошик: резерв повернеться на склад після TTL
+                            wantingSince = 0;
+                            if (AsyncLog.ENABLED) log(name, "ABANDONED checkout: " + p.name);
+                        } else if (hold.commit()) {
+                            store.recordPurchase();
+                            METRICS.recordTimeToPurchase(System.nanoTime() - wantingSince);
+                            wantingSince = 0;
+                            if (AsyncLog.ENABLED) log(name, "BOUGHT 1 x " + p.name + " (left=" + p.available() + ")");
+                        } else {
+                            if (AsyncLog.ENABLED) log(name, "HOLD EXPIRED: " + p.name + " — checkout took too long");
+                        }
                     } else {
-                        log(name, String.format("SOLD OUT: %s (left=%d) — will try later",
-                                p.name, p.available()));
+                        if (AsyncLog.ENABLED) log(name, "SOLD OUT: " + p.name + " (left=" + p.available() + ") — will try later");
                         Thread.sleep(250);
                     }
                 }
@@ -173,20 +660,118 @@ public class Main {
             }
         }
 
+        private void waitForOpen() throws InterruptedException {
+            log(name, "WAITING (store closed)");
+            long start = System.nanoTime();
+            store.awaitOpen(); // прокидаємось одразу після відкриття
+            METRICS.recordClosedWait(System.nanoTime() - start);
+        }
+
         private Product pickProduct() {
             // 70% — те, що хочемо; 30% — інший товар
             if (rnd.nextDouble() < 0.7) {
                 Product p = store.getProduct(desiredProduct);
                 if (p != null) return p;
             }
-            List<Product> list = new ArrayList<>(store.all());
-            return list.get(rnd.nextInt(list.size()));
+            return store.randomProduct(rnd);
         }
     }
 
     // ------------ Bootstrap ------------
 
+    // Як запускати акторів: один платформний потік на актора або віртуальні потоки
+    enum ThreadMode { PLATFORM, VIRTUAL }
+
+    // Параметри з командного рядка: [platform|virtual] [buyers] [durationMs]
+    static final class SimulationConfig {
+        final ThreadMode mode;
+        final int buyers;
+        final long durationMs;
+        final String replenish = System.getProperty("lb1.replenish", "random");
+        // -Dlb1.seed: кожен актор отримує Random(seed + номер); порядок потоків усе одно
+        // недетермінований — повністю відтворюваний прогін дає lb1.LoadGenerator
+        final Long seed = Long.getLong("lb1.seed");
+
+        SimulationConfig(ThreadMode mode, int buyers, long durationMs) {
+            if (buyers <= 0) throw new IllegalArgumentException("buyers must be > 0");
+            this.mode = mode;
+            this.buyers = buyers;
+            this.durationMs = durationMs;
+        }
+
+        static SimulationConfig parse(String[] args) {
+            ThreadMode mode = args.length > 0
+                    ? ThreadMode.valueOf(args[0].trim().toUpperCase(Locale.ROOT)) : ThreadMode.PLATFORM;
+            int buyers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+            long durationMs = args.length > 2 ? Long.parseLong(args[2]) : 5_000;
+            return new SimulationConfig(mode, buyers, durationMs);
+        }
+
+        Random randomFor(int actor) {
+            return seed == null ? new Random() : new Random(seed + actor);
+        }
+    }
+
+    // Підсумок прогону; пікові значення знімаються раз на 100 мс під час симуляції
+    static final class SimulationReport {
+        final SimulationConfig config;
+        final long purchases;
+        final long elapsedMs;
+        final long peakHeapBytes;
+        final long peakRssBytes; // -1, якщо /proc недоступний
+        final int peakPlatformThreads;
+        final double reopenAvgMs;
+        final double reopenMaxMs;
+        final long soldOut;
+        final long restocked;
+        final long[] timeToPurchase;
+
+        SimulationReport(SimulationConfig config, long purchases, long elapsedMs,
+                         long peakHeapBytes, long peakRssBytes, int peakPlatformThreads,
+                         double reopenAvgMs, double reopenMaxMs,
+                         long soldOut, long restocked, long[] timeToPurchase) {
+            this.config = config;
+            this.purchases = purchases;
+            this.elapsedMs = elapsedMs;
+            this.peakHeapBytes = peakHeapBytes;
+            this.peakRssBytes = peakRssBytes;
+            this.peakPlatformThreads = peakPlatformThreads;
+            this.reopenAvgMs = reopenAvgMs;
+            this.reopenMaxMs = reopenMaxMs;
+            this.soldOut = soldOut;
+            this.restocked = restocked;
+            this.timeToPurchase = timeToPurchase;
+        }
+
+        double purchasesPerSec() { return purchases * 1000.0 / Math.max(elapsedMs, 1); }
+
+        // Один рядок key=value — його розбирає ThreadModeComparison
+        @Override public String toString() {
+            return String.format(Locale.ROOT,
+                    "REPORT mode=%s buyers=%d elapsedMs=%d purchases=%d purchasesPerSec=%.1f "
+                            + "peakHeapMB=%.1f peakRssMB=%.1f peakPlatformThreads=%d "
+                            + "reopenToFirstPurchaseAvgMs=%.2f reopenToFirstPurchaseMaxMs=%.2f "
+                            + "replenish=%s soldOut=%d restocked=%d timeToPurchaseP50Ms=%.1f timeToPurchaseP99Ms=%.1f",
+                    config.mode, config.buyers, elapsedMs, purchases, purchasesPerSec(),
+                    peakHeapBytes / 1048576.0, peakRssBytes < 0 ? -1.0 : peakRssBytes / 1048576.0,
+                    peakPlatformThreads, reopenAvgMs, reopenMaxMs,
+                    config.replenish, soldOut, restocked,
+                    LatencyHistogram.percentile(timeToPurchase, 0.50) / 1e6,
+                    LatencyHistogram.percentile(timeToPurchase, 0.99) / 1e6);
+        }
+    }
+
     public static void main(String[] args) throws Exception {
+        SimulationReport report = runSimulation(SimulationConfig.parse(args));
+        LOG.close();
+        if (LOG.droppedCount() > 0) {
+            System.out.println("Log events dropped (buffer full): " + LOG.droppedCount());
+        }
+        METRICS.printTotals(System.out);
+        System.out.println(report);
+    }
+
+    static SimulationReport runSimulation(SimulationConfig config) throws InterruptedException {
         Store store = new Store();
         // Початковий каталог і наявність
         store.addProduct(new Product("Laptop", 1));
@@ -194,45 +779,88 @@ public class Main {
         store.addProduct(new Product("Mouse", 0));  // свідомо 0 — щоб побачити SOLD OUT
         store.addProduct(new Product("Keyboard", 1));
 
-        // Плануємо роботу: магазин відкритий 2.5с, зачинений 1.5с (циклічно)
-        Thread hours = new Thread(new WorkingHours(store, 2500, 1500), "WorkingHours");
-        Thread admin = new Thread(new Admin(store), "Admin");
+        // Покупці з різними вподобаннями — по колу
+        String[] wishes = {"Laptop", "Mouse", "Headphones", "Keyboard"};
 
-        // Кілька покупців із різними вподобаннями
-        List<Thread> buyers = List.of(
-                new Thread(new Buyer("Buyer-1", store, "Laptop")),
-                new Thread(new Buyer("Buyer-2", store, "Mouse")),
-                new Thread(new Buyer("Buyer-3", store, "Headphones")),
-                new Thread(new Buyer("Buyer-4", store, "Keyboard"))
-        );
+        ExecutorService actors = config.mode == ThreadMode.VIRTUAL
+                ? newVirtualThreadExecutor()
+                : Executors.newCachedThreadPool(); // фактично один платформний потік на актора
 
-        // Старт
-        hours.start();
-        admin.start();
-        buyers.forEach(Thread::start);
+        long reportMs = Long.getLong("lb1.metrics.reportMs", 1000);
+        ScheduledExecutorService reporter = reportMs > 0 ? METRICS.startReporter(reportMs, System.out) : null;
 
-        // Дамо симуляції попрацювати ~10 секунд
-        Thread.sleep(5_000);
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long peakHeap = 0;
+        int peakThreads = 0;
 
-        // Коректне завершення
-        buyers.forEach(Thread::interrupt);
-        admin.interrupt();
-        hours.interrupt();
+        // Старт: магазин відкритий 2.5с, зачинений 1.5с (циклічно)
+        long start = System.nanoTime();
+        actors.execute(new WorkingHours(store, 2500, 1500));
+        actors.execute(new Admin(store, ReplenishmentPolicy.fromName(config.replenish), config.randomFor(0)));
+        for (int i = 0; i < config.buyers; i++) {
+            actors.execute(new Buyer("Buyer-" + (i + 1), store, wishes[i % wishes.length], config.randomFor(i + 1)));
+        }
+
+        // Дамо симуляції попрацювати, паралельно знімаючи пам'ять і потоки
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(config.durationMs);
+        long left;
+        while ((left = deadline - System.nanoTime()) > 0) {
+            peakHeap = Math.max(peakHeap, memory.getHeapMemoryUsage().getUsed());
+            peakThreads = Math.max(peakThreads, threads.getThreadCount());
+            TimeUnit.NANOSECONDS.sleep(Math.min(left, TimeUnit.MILLISECONDS.toNanos(100)));
+        }
+        long purchases = store.purchases();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
 
-        // Приєднуємося
-        for (Thread t : buyers) t.join();
-        admin.join();
-        hours.join();
+        // Коректне завершення: interrupt усім акторам і чекаємо
+        actors.shutdownNow();
+        actors.awaitTermination(30, TimeUnit.SECONDS);
+        if (reporter != null) reporter.shutdownNow();
 
         log("MAIN", "Simulation finished. Final stock:");
         for (Product p : store.all()) {
             log("STOCK", p.name + " -> " + p.available());
         }
+        return new SimulationReport(config, purchases, elapsedMs, peakHeap, peakRssBytes(), peakThreads,
+                store.reopenToFirstPurchaseAvgMs(), store.reopenToFirstPurchaseMaxMs(),
+                METRICS.totalSoldOut(), METRICS.totalRestocked(), METRICS.timeToPurchase().snapshot());
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() є лише з JDK 21 — шукаємо рефлексією,
+    // щоб платформний режим і далі компілювався та працював на старіших JDK.
+    // Без тихого переходу на платформні потоки: звіт інакше підписав би їх як VIRTUAL.
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(
+                    "Virtual threads need JDK 21+, running " + Runtime.version(), e);
+        }
+    }
+
+    // Пік RSS процесу (VmHWM) — туди потрапляють і стеки платформних потоків
+    static long peakRssBytes() {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/self/status"))) {
+                if (line.startsWith("VmHWM:")) {
+                    String kb = line.substring(6).trim().split("\\s+")[0];
+                    return Long.parseLong(kb) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // не Linux — RSS невідомий
+        }
+        return -1;
     }
 
     // ------------ Helpers ------------
 
     static void log(String who, String msg) {
-        System.out.printf("[%s] %-10s | %s%n", LocalTime.now().format(TF), who, msg);
+        log(AsyncLog.Level.INFO, who, msg);
+    }
+
+    static void log(AsyncLog.Level level, String who, String msg) {
+        if (AsyncLog.ENABLED) LOG.log(level, who, msg);
     }
 }
@@ -0,0 +1,158 @@
+package lb1;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// ====== Реєстр метрик симуляції ======
+// Лічильники — LongAdder, затримки — гістограми з розкладом по смугах,
+// тож запис на гарячому шляху не має спільної точки конкуренції.
+final class MetricsRegistry {
+
+    private final Map<String, ProductMetrics> products = new ConcurrentHashMap<>();
+    private final LatencyHistogram closedWait = new LatencyHistogram(); // скільки покупець простояв під закритими дверима
+    private final LatencyHistogram timeToPurchase = new LatencyHistogram(); // від появи потреби до оплаченої покупки
+
+    ProductMetrics forProduct(String name) {
+        return products.computeIfAbsent(name, ProductMetrics::new);
+    }
+
+    void recordClosedWait(long nanos) { closedWait.record(nanos); }
+
+    LatencyHistogram closedWait() { return closedWait; }
+
+    void recordTimeToPurchase(long nanos) { timeToPurchase.record(nanos); }
+
+    LatencyHistogram timeToPurchase() { return timeToPurchase; }
+
+    long totalSoldOut() {
+        long sum = 0;
+        for (ProductMetrics m : products.values()) sum += m.soldOut.sum();
+        return sum;
+    }
+
+    long totalRestocked() {
+        long sum = 0;
+        for (ProductMetrics m : products.values()) sum += m.restocked.sum();
+        return sum;
+    }
+
+    Iterable<ProductMetrics> products() { return products.values(); }
+
+    // Звітувальник: раз на periodMs друкує значення за останній інтервал
+    ScheduledExecutorService startReporter(long periodMs, PrintStream out) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Metrics-reporter");
+            t.setDaemon(true);
+            return t;
+        });
+        Reporter reporter = new Reporter(out);
+        scheduler.scheduleAtFixedRate(reporter::report, periodMs, periodMs, TimeUnit.MILLISECONDS);
+        return scheduler;
+    }
+
+    // Підсумок за весь прогін
+    void printTotals(PrintStream out) {
+        for (ProductMetrics m : products.values()) {
+            Snapshot s = m.snapshot();
+            out.printf(Locale.ROOT, "[metrics] total %-12s bought=%d soldOut=%d restocked=%d expiredHolds=%d tryBuy %s%n",
+                    m.name, s.purchases, s.soldOut, s.restocked, m.expiredHolds.sum(),
+                    LatencyHistogram.describe(s.tryBuyWait));
+        }
+        out.println("[metrics] total closed-wait  " + LatencyHistogram.describe(closedWait.snapshot()));
+        out.println("[metrics] total time-to-buy  " + LatencyHistogram.describe(timeToPurchase.snapshot()));
+    }
+
+    private final class Reporter {
+        private final PrintStream out;
+        private final Map<String, Snapshot> previous = new HashMap<>();
+        private long[] previousClosed = closedWait.snapshot();
+        private long lastNanos = System.nanoTime();
+
+        Reporter(PrintStream out) { this.out = out; }
+
+        void report() {
+            long now = System.nanoTime();
+            double seconds = Math.max(now - lastNanos, 1) / 1e9;
+            lastNanos = now;
+
+            List<String> lines = new ArrayList<>();
+            for (ProductMetrics m : products.values()) {
+                Snapshot cur = m.snapshot();
+                Snapshot prev = previous.getOrDefault(m.name, Snapshot.EMPTY);
+                previous.put(m.name, cur);
+
+                long buys = cur.purchases - prev.purchases;
+                long soldOut = cur.soldOut - prev.soldOut;
+                if (buys == 0 && soldOut == 0 && cur.restocked == prev.restocked) continue;
+
+                long[] wait = LatencyHistogram.minus(cur.tryBuyWait, prev.tryBuyWait);
+                lines.add(String.format(Locale.ROOT,
+                        "[metrics] %-12s buys/s=%8.1f soldOut=%5.1f%% restocked=%4d tryBuy %s",
+                        m.name, buys / seconds, 100.0 * soldOut / Math.max(buys + soldOut, 1),
+                        cur.restocked - prev.restocked, LatencyHistogram.describe(wait)));
+            }
+            long[] closed = closedWait.snapshot();
+            lines.add("[metrics] closed-wait  " + LatencyHistogram.describe(LatencyHistogram.minus(closed, previousClosed)));
+            previousClosed = closed;
+
+            // один println на звіт, щоб рядки не перемішувались з іншим виводом
+            out.println(String.join(System.lineSeparator(), lines));
+        }
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(0, 0, 0, new long[LatencyHistogram.BUCKETS]);
+
+        final long purchases, soldOut, restocked;
+        final long[] tryBuyWait;
+
+        Snapshot(long purchases, long soldOut, long restocked, long[] tryBuyWait) {
+            this.purchases = purchases;
+            this.soldOut = soldOut;
+            this.restocked = restocked;
+            this.tryBuyWait = tryBuyWait;
+        }
+    }
+
+    // ====== Метрики одного товару ======
+    static final class ProductMetrics {
+        final String name;
+        final LongAdder purchases = new LongAdder();
+        final LongAdder soldOut = new LongAdder();
+        final LongAdder restocked = new LongAdder();
+        final LongAdder expiredHolds = new LongAdder();
+        final LatencyHistogram tryBuyWait = new LatencyHistogram();
+
+        ProductMetrics(String name) { this.name = name; }
+
+        void recordTryBuy(boolean ok, int units, long waitNanos) {
+            recordAcquire(ok, waitNanos);
+            if (ok) purchases.add(units);
+        }
+
+        // Резерв: чекання і SOLD OUT рахуємо одразу, а покупку — лише при commit
+        void recordAcquire(boolean ok, long waitNanos) {
+            if (!ok) soldOut.increment();
+            tryBuyWait.record(waitNanos);
+        }
+
+        void recordPurchase(int units) { purchases.add(units); }
+
+        void recordExpiredHold() { expiredHolds.increment(); }
+
+        void recordRestock(int units) { restocked.add(units); }
+
+        private Snapshot snapshot() {
+            return new Snapshot(purchases.sum(), soldOut.sum(), restocked.sum(), tryBuyWait.snapshot());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package lb1;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Кошик із K рядків: Store.placeOrder (все-або-нічого) проти старого циклу
+ * "по одній одиниці через tryBuy", який при нестачі лишає частину кошика забраною.
+ *
+ * Run: java -cp . lb1.OrderBenchmark [buyers=64] [lines=4] [seconds=3]
+ */
+public class OrderBenchmark {
+
+    private static final int UNITS_PER_LINE = 2;
+
+    public static void main(String[] args) throws InterruptedException {
+        int buyers = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int lines = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        System.out.printf("Engine: %s, buyers: %d, cart lines: %d x %d units%n%n",
+                Main.ENGINE, buyers, lines, UNITS_PER_LINE);
+        System.out.printf("%-16s %14s %16s%n", "Mode", "carts/sec", "stranded units");
+
+        for (boolean batched : new boolean[]{false, true}) {
+            run(batched, buyers, lines, seconds * 1000L); // прогрів
+            Result r = run(batched, buyers, lines, seconds * 1000L);
+            System.out.printf("%-16s %,14.0f %,16d%n",
+                    batched ? "placeOrder" : "per-unit loop", r.cartsPerSec, r.stranded);
+        }
+    }
+
+    private static Result run(boolean batched, int buyerCount, int lineCount, long durationMs)
+            throws InterruptedException {
+        Main.Store store = new Main.Store();
+        Map<String, Integer> cart = new LinkedHashMap<>();
+        for (int i = 0; i < lineCount; i++) {
+            store.addProduct(new Main.Product("P" + i, 0));
+            cart.put("P" + i, UNITS_PER_LINE);
+        }
+
+        LongAdder carts = new LongAdder();
+        LongAdder stranded = new LongAdder(); // одиниці, забрані незавершеними кошиками
+        List<Thread> threads = new ArrayList<>();
+
+        threads.add(new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                boolean idle = true;
+                for (Main.Product p : store.all()) {
+                    if (p.available() < 1_000) {
+                        p.addStock(64);
+                        idle = false;
+                    }
+                }
+                if (idle) Thread.onSpinWait();
+            }
+        }, "Restocker"));
+
+        for (int i = 0; i < buyerCount; i++) {
+            threads.add(new Thread(() -> {
+                try {
+                    while (!Thread.currentThread().isInterrupted()) {
+                        if (batched) {
+                            if (store.placeOrder(cart)) carts.increment();
+                        } else {
+                            int taken = perUnitLoop(store, cart);
+                            if (taken < 0) carts.increment();
+                            else stranded.add(taken);
+                        }
+                    }
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "Buyer-" + i));
+        }
+
+        threads.forEach(Thread::start);
+        long start = System.nanoTime();
+        Thread.sleep(durationMs);
+        threads.forEach(Thread::interrupt);
+        double elapsedSec = (System.nanoTime() - start) / 1e9;
+        for (Thread t : threads) t.join();
+
+        return new Result(carts.sum() / elapsedSec, stranded.sum());
+    }
+
+    // Як зараз робить Buyer: одна одиниця за виклик; -1 якщо кошик зібрано повністю,
+    // інакше кількість уже забраних одиниць, що так і лишились "висіти"
+    private static int perUnitLoop(Main.Store store, Map<String, Integer> cart)
+            throws InterruptedException {
+        int taken = 0;
+        for (Map.Entry<String, Integer> line : cart.entrySet()) {
+            Main.Product p = store.getProduct(line.getKey());
+            for (int u = 0; u < line.getValue(); u++) {
+                if (!p.tryBuy(0)) return taken;
+                taken++;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Result {
+        final double cartsPerSec;
+        final long stranded;
+
+        Result(double cartsPerSec, long stranded) {
+            this.cartsPerSec = cartsPerSec;
+            this.stranded = stranded;
+        }
+    }
+}
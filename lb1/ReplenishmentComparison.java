@@ -0,0 +1,45 @@
+package lb1;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Порівняння політик поповнення на однаковому надходженні товару (1..3 од. за ~1.2с):
+ * кількість SOLD OUT і час від появи потреби до покупки (p50/p99).
+ * Усі політики витрачають кожну партію повністю, тож restocked однаковий з точністю
+ * до останньої незавершеної партії; для певності bought і sold out ще й нормуються
+ * на одиницю доданого товару (стовпці /unit).
+ * Кожна політика — окрема JVM.
+ *
+ * Run: java -cp . lb1.ReplenishmentComparison [buyers=40] [durationMs=20000]
+ */
+public class ReplenishmentComparison {
+
+    private static final String[] POLICIES = {"random", "demand", "minmax"};
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String buyers = args.length > 0 ? args[0] : "40";
+        String durationMs = args.length > 1 ? args[1] : "20000";
+
+        System.out.printf("Buyers: %s, duration: %s ms%n%n", buyers, durationMs);
+        System.out.printf("%-8s %10s %10s %10s %12s %14s %16s %14s%n",
+                "Policy", "restocked", "bought", "sold out", "bought/unit", "sold out/unit",
+                "time-to-buy p50", "p99");
+
+        for (String policy : POLICIES) {
+            Map<String, String> r = ChildSimulation.run(List.of("-Dlb1.replenish=" + policy),
+                    List.of("platform", buyers, durationMs));
+            if (r == null) {
+                System.out.printf("%-8s %s%n", policy, "failed");
+                continue;
+            }
+            double restocked = Math.max(Double.parseDouble(r.get("restocked")), 1);
+            System.out.printf("%-8s %10s %10s %10s %12.2f %14.2f %13s ms %11s ms%n", policy,
+                    r.get("restocked"), r.get("purchases"), r.get("soldOut"),
+                    Double.parseDouble(r.get("purchases")) / restocked,
+                    Double.parseDouble(r.get("soldOut")) / restocked,
+                    r.get("timeToPurchaseP50Ms"), r.get("timeToPurchaseP99Ms"));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package lb1;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Стратегія поповнення для Admin: як розподілити партію з budget одиниць між товарами.
+ * Сигнал попиту — лічильники покупок і SOLD OUT з MetricsRegistry.ProductMetrics.
+ *
+ * Вибір: -Dlb1.replenish=random|demand|minmax
+ */
+interface ReplenishmentPolicy {
+
+    // Скільки одиниць додати кожному товару; сума не більша за budget.
+    // Не розподілене Admin переносить на наступну партію.
+    Map<Main.Product, Integer> plan(Main.Store store, int budget, Random rnd);
+
+    static ReplenishmentPolicy fromName(String name) {
+        switch (name == null ? "random" : name.trim().toLowerCase(Locale.ROOT)) {
+            case "demand": return new DemandProportional();
+            case "minmax": return new ReorderPoint(
+                    Integer.getInteger("lb1.replenish.min", 0), Integer.getInteger("lb1.replenish.max", 3));
+            case "random": return new RandomProduct();
+            default: throw new IllegalArgumentException("Unknown replenishment policy: " + name);
+        }
+    }
+
+    // Початкова поведінка: вся партія — випадковому товару, попит не враховується
+    final class RandomProduct implements ReplenishmentPolicy {
+        @Override public Map<Main.Product, Integer> plan(Main.Store store, int budget, Random rnd) {
+            Main.Product p = store.randomProduct(rnd);
+            return p == null ? Map.of() : Map.of(p, budget);
+        }
+
+        @Override public String toString() { return "random"; }
+    }
+
+    // Попит товару за останні партії: EWMA приросту (покупки + SOLD OUT)
+    final class DemandTracker {
+        private static final double ALPHA = 0.3;
+
+        private final Map<Main.Product, long[]> last = new IdentityHashMap<>();  // {покупки, soldOut}
+        private final Map<Main.Product, Double> rate = new IdentityHashMap<>();
+
+        // Оновити EWMA для всіх товарів каталогу; викликається раз на партію
+        void update(Main.Store store) {
+            for (int i = 0; i < store.size(); i++) {
+                Main.Product p = store.productAt(i);
+                if (p == null) continue;
+                long bought = p.metrics.purchases.sum();
+                long soldOut = p.metrics.soldOut.sum();
+                long[] prev = last.computeIfAbsent(p, k -> new long[]{bought, soldOut});
+                double delta = (bought - prev[0]) + (soldOut - prev[1]);
+                prev[0] = bought;
+                prev[1] = soldOut;
+                rate.merge(p, delta, (old, d) -> old + ALPHA * (d - old));
+            }
+        }
+
+        double demand(Main.Product p) { return rate.getOrDefault(p, 0.0); }
+    }
+
+    // Партія ділиться пропорційно попиту (метод найбільших залишків),
+    // з урахуванням того, що вже лежить на складі
+    final class DemandProportional implements ReplenishmentPolicy {
+        private final DemandTracker tracker = new DemandTracker();
+
+        @Override public Map<Main.Product, Integer> plan(Main.Store store, int budget, Random rnd) {
+            tracker.update(store);
+
+            List<Main.Product> products = new ArrayList<>();
+            List<Double> need = new ArrayList<>();
+            double total = 0;
+            for (int i = 0; i < store.size(); i++) {
+                Main.Product p = store.productAt(i);
+                if (p == null) continue;
+                double n = Math.max(tracker.demand(p) - p.available(), 0);
+                if (n <= 0) continue;
+                products.add(p);
+                need.add(n);
+                total += n;
+            }
+            if (total == 0) return new RandomProduct().plan(store, budget, rnd); // попиту ще немає
+
+            Map<Main.Product, Integer> plan = new LinkedHashMap<>();
+            double[] remainders = new double[products.size()];
+            int given = 0;
+            for (int i = 0; i < products.size(); i++) {
+                double share = budget * need.get(i) / total;
+                int units = (int) share;
+                remainders[i] = share - units;
+                if (units > 0) plan.put(products.get(i), units);
+                given += units;
+            }
+            while (given < budget) {
+                int best = 0;
+                for (int i = 1; i < remainders.length; i++) {
+                    if (remainders[i] > remainders[best]) best = i;
+                }
+                remainders[best] = -1;
+                plan.merge(products.get(best), 1, Integer::sum);
+                given++;
+            }
+            return plan;
+        }
+
+        @Override public String toString() { return "demand"; }
+    }
+
+    // Точка перезамовлення: товар із залишком <= min доводимо до max,
+    // першими — товари з найбільшим попитом. Залишок партії теж не пропадає:
+    // по одній одиниці по колу товарам у порядку попиту, тож, як і інші політики,
+    // ReorderPoint витрачає весь budget — порівняння йде на однаковій кількості доданого товару.
+    final class ReorderPoint implements ReplenishmentPolicy {
+        private final int min;
+        private final int max;
+        private final DemandTracker tracker = new DemandTracker();
+
+        ReorderPoint(int min, int max) {
+            if (max <= min) throw new IllegalArgumentException("max must be > min");
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override public Map<Main.Product, Integer> plan(Main.Store store, int budget, Random rnd) {
+            tracker.update(store);
+
+            List<Main.Product> ranked = new ArrayList<>();
+            for (int i = 0; i < store.size(); i++) {
+                Main.Product p = store.productAt(i);
+                if (p != null) ranked.add(p);
+            }
+            ranked.sort((a, b) -> Double.compare(tracker.demand(b), tracker.demand(a)));
+
+            Map<Main.Product, Integer> plan = new LinkedHashMap<>();
+            int left = budget;
+            for (Main.Product p : ranked) {
+                if (left == 0) break;
+                if (p.available() > min) continue;
+                int units = Math.min(max - p.available(), left);
+                if (units <= 0) continue;
+                plan.put(p, units);
+                left -= units;
+            }
+            // Решта партії — по колу за попитом
+            for (int i = 0; left > 0 && !ranked.isEmpty(); i = (i + 1) % ranked.size()) {
+                plan.merge(ranked.get(i), 1, Integer::sum);
+                left--;
+            }
+            return plan;
+        }
+
+        @Override public String toString() { return "minmax(" + min + ".." + max + ")"; }
+    }
+}
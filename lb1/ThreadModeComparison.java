@@ -0,0 +1,36 @@
+package lb1;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Звіт "платформні потоки vs віртуальні": кожен режим запускається в окремій JVM
+ * (щоб пік RSS не змішувався), з логуванням вимкненим, і розбирається рядок REPORT.
+ *
+ * Run: java -cp . lb1.ThreadModeComparison [buyers=10000] [durationMs=5000]
+ */
+public class ThreadModeComparison {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String buyers = args.length > 0 ? args[0] : "10000";
+        String durationMs = args.length > 1 ? args[1] : "5000";
+
+        System.out.printf("Buyers: %s, duration: %s ms, JDK %s%n%n", buyers, durationMs, Runtime.version());
+        System.out.printf("%-9s %14s %12s %12s %16s%n",
+                "Mode", "purchases/sec", "heap peak", "RSS peak", "platform threads");
+
+        for (Main.ThreadMode mode : Main.ThreadMode.values()) {
+            Map<String, String> r = ChildSimulation.run(List.of(),
+                    List.of(mode.name().toLowerCase(Locale.ROOT), buyers, durationMs));
+            if (r == null) {
+                System.out.printf("%-9s %s%n", mode, "unavailable on this JDK (needs 21+)");
+                continue;
+            }
+            System.out.printf("%-9s %14s %9s MB %9s MB %16s%n", mode,
+                    r.get("purchasesPerSec"), r.get("peakHeapMB"), r.get("peakRssMB"),
+                    r.get("peakPlatformThreads"));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package lb1;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Хешоване колесо таймерів (hashed timer wheel) для протермінованих резервів.
+ *
+ * Один потік-обробник на все колесо, а не окрема запланована задача на кожен резерв:
+ * - schedule() лише кладе запис у lock-free стек очікування (без алокацій);
+ * - раз на тік обробник розкладає нові записи по кошиках колеса і проходить
+ *   поточний кошик: завершені записи (commit/cancel) просто викидає, прострочені — expire().
+ * Записи — інтрузивні вузли списків, тому мільйони активних резервів коштують
+ * рівно стільки пам'яті, скільки самі резерви.
+ */
+final class TimerWheel {
+
+    // Запис колеса. До публікації schedule() пише deadlineNanos і next (ланка стеку incoming);
+    // після успішного CAS запис належить потоку-обробнику — далі next/rounds змінює лише він
+    abstract static class Entry {
+        private long deadlineNanos;
+        private long rounds;
+        private Entry next;
+
+        // false — запис уже не потрібен (закомічено чи скасовано), його можна викинути
+        abstract boolean isPending();
+
+        // true — запис справді прострочився (а не встиг закомітитись в останній момент)
+        abstract boolean expire();
+    }
+
+    private final long tickNanos;
+    private final Entry[] buckets;
+    private final int mask;
+    private final long startNanos = System.nanoTime();
+    private final AtomicReference<Entry> incoming = new AtomicReference<>();
+    private final LongAdder expired = new LongAdder();
+    private long tick; // наступний тік до обробки (лише потік-обробник)
+
+    TimerWheel(long tickMs, int wheelSize) {
+        int size = 1;
+        while (size < wheelSize) size <<= 1;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(tickMs, 1));
+        this.buckets = new Entry[size];
+        this.mask = size - 1;
+
+        Thread worker = new Thread(this::run, "TimerWheel");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    void schedule(Entry e, long delayMs) {
+        e.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs);
+        // incoming — стек Трайбера, зв'язаний через те саме поле next
+        Entry head;
+        do {
+            head = incoming.get();
+            e.next = head;
+        } while (!incoming.compareAndSet(head, e));
+    }
+
+    long expiredCount() { return expired.sum(); }
+
+    private void run() {
+        while (true) {
+            long tickDeadline = startNanos + (tick + 1) * tickNanos;
+            long sleep = tickDeadline - System.nanoTime();
+            if (sleep > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleep);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+            transferIncoming();
+            expireBucket((int) (tick & mask));
+            tick++;
+        }
+    }
+
+    private void transferIncoming() {
+        Entry e = incoming.getAndSet(null);
+        while (e != null) {
+            Entry following = e.next;
+            if (e.isPending()) {
+                // ціле число тіків від старту, округлене вгору; минуле — у поточний тік
+                long due = Math.max(ceilDiv(e.deadlineNanos - startNanos, tickNanos) - 1, tick);
+                e.rounds = (due - tick) / buckets.length;
+                int idx = (int) (due & mask);
+                e.next = buckets[idx];
+                buckets[idx] = e;
+            }
+            e = following;
+        }
+    }
+
+    private void expireBucket(int idx) {
+        Entry prev = null;
+        Entry e = buckets[idx];
+        while (e != null) {
+            Entry following = e.next;
+            boolean unlink;
+            if (!e.isPending()) {
+                unlink = true;
+            } else if (e.rounds > 0) {
+                e.rounds--;
+                unlink = false;
+            } else {
+                if (e.expire()) expired.increment();
+                unlink = true;
+            }
+            if (unlink) {
+                if (prev == null) buckets[idx] = following;
+                else prev.next = following;
+                e.next = null;
+            } else {
+                prev = e;
+            }
+            e = following;
+        }
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return -Math.floorDiv(-a, b);
+    }
+}
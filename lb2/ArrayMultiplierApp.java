@@ -1,12 +1,17 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 import java.util.concurrent.Callable;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.CancellationException;
 
 // Модель фрагмента масиву (шматок, який буде обробляти конкретний потік)
 class ArrayChunk {
@@ -30,9 +35,12 @@ class ArrayChunk {
     }
 }
 
-// Завдання: помножити частину масиву на множник і повернути новий підмасив
+// Завдання: помножити частину масиву на множник і повернути новий підмасив.
+// Між блоками перевіряє переривання, щоб скасування (future.cancel(true)) зупиняло і вже запущений шматок.
 class ArrayChunkTask implements Callable<int[]> {
 
+    private static final int CANCEL_CHECK_BLOCK = 1 << 16;
+
     private final int[] source;
     private final ArrayChunk chunk;
     private final int factor;
@@ -45,87 +53,151 @@ class ArrayChunkTask implements Callable<int[]> {
 
     @Override
     public int[] call() {
-        String threadName = Thread.currentThread().getName();
-        System.out.println("Потік " + threadName + " обробляє індекси [" +
-                chunk.getStartIndex() + "; " + chunk.getEndIndex() + "]");
-
         int length = chunk.getEndIndex() - chunk.getStartIndex() + 1;
         int[] result = new int[length];
 
-        for (int i = 0; i < length; i++) {
-            int sourceIndex = chunk.getStartIndex() + i;
-            result[i] = source[sourceIndex] * factor;
+        for (int done = 0; done < length; done += CANCEL_CHECK_BLOCK) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Шматок [" + chunk.getStartIndex() + "; "
+                        + chunk.getEndIndex() + "] скасовано");
+            }
+            int n = Math.min(CANCEL_CHECK_BLOCK, length - done);
+            MultiplyKernel.DEFAULT.multiply(source, chunk.getStartIndex() + done, result, done, n, factor);
         }
 
         return result;
     }
 }
 
+// Завдання без проміжних масивів: множить частину source і пише результат
+// прямо в target за тими самими індексами (target може бути самим source — in-place)
+class ArrayChunkWriteTask implements Callable<Void> {
+
+    private final int[] source;
+    private final int[] target;
+    private final ArrayChunk chunk;
+    private final int factor;
+    private final OverflowPolicy policy;
+
+    public ArrayChunkWriteTask(int[] source, int[] target, ArrayChunk chunk, int factor) {
+        this(source, target, chunk, factor, OverflowPolicy.WRAP);
+    }
+
+    public ArrayChunkWriteTask(int[] source, int[] target, ArrayChunk chunk, int factor, OverflowPolicy policy) {
+        this.source = source;
+        this.target = target;
+        this.chunk = chunk;
+        this.factor = factor;
+        this.policy = policy;
+    }
+
+    @Override
+    public Void call() {
+        int start = chunk.getStartIndex();
+        policy.multiply(source, start, target, start, chunk.getEndIndex() - start + 1, factor);
+        return null;
+    }
+}
+
 // Менеджер, який керує:
 // - розбиттям масиву на частини
-// - запуском потоків
-// - збором результатів через Future та CopyOnWriteArrayList
+// - запуском шматків на ParallelRunner (спільний довгоживучий пул або переданий ззовні)
+// - збором результатів через Future: з дедлайном, повторами і без частинних результатів
+//
+// Задачі нічого не друкують: println на кожен шматок сидів би на гарячому шляху.
+// Розбивку можна побачити з -Dlb2.debug=true — її друкує викликач, один раз на виклик.
 class ArrayMultiplicationManager {
 
+    static final boolean DEBUG = Boolean.getBoolean("lb2.debug");
+
     private final int[] sourceArray;
     private final int factor;
-    private final int threadCount;
+    private final ParallelRunner runner;
 
+    // threadCount — стеля паралелізму на спільному пулі; менші масиви отримають менше шматків
     public ArrayMultiplicationManager(int[] sourceArray, int factor, int threadCount) {
+        this(sourceArray, factor, checkThreadCount(threadCount));
+    }
+
+    public ArrayMultiplicationManager(int[] sourceArray, int factor, ParallelRunner runner) {
         if (sourceArray == null) {
             throw new IllegalArgumentException("sourceArray не може бути null");
         }
-        if (threadCount <= 0) {
-            throw new IllegalArgumentException("threadCount має бути > 0");
+        if (runner == null) {
+            throw new IllegalArgumentException("runner не може бути null");
         }
         this.sourceArray = sourceArray;
         this.factor = factor;
-        this.threadCount = threadCount;
+        this.runner = runner;
+    }
+
+    private static ParallelRunner checkThreadCount(int threadCount) {
+        if (threadCount <= 0) {
+            throw new IllegalArgumentException("threadCount має бути > 0");
+        }
+        return ParallelRunner.shared().withMaxParallelism(threadCount);
     }
 
     public int[] multiplyArray() {
-        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
-        List<Future<int[]>> futures = new ArrayList<>();
+        return multiplyArray(null, 0);
+    }
 
+    // Кожен шматок — окремий підмасив, потім злиття в порядку шматків.
+    // timeout (null — без обмеження) і maxRetries — див. ParallelRunner.invokeAll:
+    // або повний результат, або ChunkFailureException, ніколи не коротший масив.
+    public int[] multiplyArray(Duration timeout, int maxRetries) {
         int length = sourceArray.length;
-        List<ArrayChunk> chunks = splitIntoChunks(length, threadCount);
+        List<ArrayChunk> chunks = splitIntoChunks(length, runner.parallelismFor(length));
+        logChunks(chunks);
 
-        // Створюємо задачі для кожного шматка
-        for (ArrayChunk chunk : chunks) {
-            ArrayChunkTask task = new ArrayChunkTask(sourceArray, chunk, factor);
-            Future<int[]> future = executor.submit(task);
-            futures.add(future);
-        }
+        List<int[]> partialResults = runner.invokeAll(chunks,
+                chunk -> new ArrayChunkTask(sourceArray, chunk, factor), timeout, maxRetries);
 
-        // Збираємо результати у потокобезпечний список
-        CopyOnWriteArrayList<int[]> partialResults = new CopyOnWriteArrayList<>();
+        // Обʼєднуємо всі підмасиви в один результатний масив
+        return mergePartialResults(partialResults);
+    }
 
-        for (Future<int[]> future : futures) {
-            try {
-                int[] part = future.get();
+    // Один прохід по пам'яті: задачі пишуть результат одразу в target,
+    // без підмасивів, CopyOnWriteArrayList і злиття; малі масиви — послідовно
+    public int[] multiplyArrayInto(int[] target) {
+        return multiplyArrayInto(target, OverflowPolicy.WRAP);
+    }
 
-                System.out.println("Завдання виконано? " + future.isDone()
-                        + ", скасовано? " + future.isCancelled());
+    // Те саме з вибором поведінки при переповненні (WIDEN — лише через multiplyArrayWide).
+    // Для THROW вміст target після винятку не визначений.
+    public int[] multiplyArrayInto(int[] target, OverflowPolicy policy) {
+        if (target == null || target.length != sourceArray.length) {
+            throw new IllegalArgumentException("target має бути масивом довжини " + sourceArray.length);
+        }
+        if (policy == null || policy == OverflowPolicy.WIDEN) {
+            throw new IllegalArgumentException("Для int[] підходять WRAP, SATURATE або THROW");
+        }
 
-                if (!future.isCancelled()) {
-                    partialResults.add(part);
-                }
-            } catch (InterruptedException e) {
-                System.out.println("Потік було перервано під час очікування результату: " + e.getMessage());
-                Thread.currentThread().interrupt();
-            } catch (ExecutionException e) {
-                System.out.println("Помилка виконання одного з завдань: " + e.getMessage());
-            }
+        if (target.length == 0) {
+            return target;
         }
+        logChunks(sourceArray.length);
+        runner.forEachChunk(sourceArray.length, (from, to) ->
+                new ArrayChunkWriteTask(sourceArray, target, new ArrayChunk(from, to - 1), factor, policy).call());
+        return target;
+    }
 
-        executor.shutdown();
+    // Точний результат без переповнень: кожен добуток у long
+    public long[] multiplyArrayWide() {
+        long[] target = new long[sourceArray.length];
+        logChunks(sourceArray.length);
+        runner.forEachChunk(sourceArray.length, (from, to) ->
+                OverflowPolicy.multiplyWide(sourceArray, from, target, from, to - from, factor));
+        return target;
+    }
 
-        // Обʼєднуємо всі підмасиви в один результатний масив
-        return mergePartialResults(partialResults);
+    // Множимо sourceArray на місці — жодного додаткового масиву
+    public int[] multiplyArrayInPlace() {
+        return multiplyArrayInto(sourceArray);
     }
 
     // Розбиваємо масив на приблизно рівні шматки
-    private List<ArrayChunk> splitIntoChunks(int length, int parts) {
+    static List<ArrayChunk> splitIntoChunks(int length, int parts) {
         List<ArrayChunk> chunks = new ArrayList<>();
 
         int chunkSize = (length + parts - 1) / parts;
@@ -141,6 +213,24 @@ class ArrayMultiplicationManager {
         return chunks;
     }
 
+    // Ті самі шматки, що їх візьме ParallelRunner.forEachChunk
+    private void logChunks(int length) {
+        if (DEBUG) {
+            logChunks(splitIntoChunks(length, runner.parallelismFor(length)));
+        }
+    }
+
+    private static void logChunks(List<ArrayChunk> chunks) {
+        if (!DEBUG) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder("Шматки (" + chunks.size() + "):");
+        for (ArrayChunk chunk : chunks) {
+            sb.append(" [").append(chunk.getStartIndex()).append("; ").append(chunk.getEndIndex()).append(']');
+        }
+        System.out.println(sb);
+    }
+
     // Збираємо всі int[] у один великий int[]
     private int[] mergePartialResults(List<int[]> partialResults) {
         int totalLength = 0;
@@ -170,15 +260,16 @@ public class ArrayMultiplierApp {
         System.out.print("Введіть множник: ");
         int factor = scanner.nextInt();
 
-        // 2. Вибираємо кількість потоків (простий варіант)
-        int threadCount = chooseThreadCount(sourceArray.length);
-        System.out.println("Обрана кількість потоків: " + threadCount);
+        // 2. Кількість потоків — від розміру масиву, мінімального шматка і кількості ядер
+        ParallelRunner runner = ParallelRunner.shared();
+        System.out.println("Обрана кількість потоків: " + runner.parallelismFor(sourceArray.length));
 
         long startTime = System.currentTimeMillis();
 
         ArrayMultiplicationManager manager =
-                new ArrayMultiplicationManager(sourceArray, factor, threadCount);
-        int[] resultArray = manager.multiplyArray();
+                new ArrayMultiplicationManager(sourceArray, factor, runner);
+        // Вихідний масив ще виводимо, тому результат — в окремий, але один, масив
+        int[] resultArray = manager.multiplyArrayInto(new int[sourceArray.length]);
 
         long endTime = System.currentTimeMillis();
         long duration = endTime - startTime;
@@ -194,23 +285,6 @@ public class ArrayMultiplierApp {
         scanner.close();
     }
 
-    // Обираємо кількість потоків
-    private static int chooseThreadCount(int length) {
-        int availableCpus = Runtime.getRuntime().availableProcessors();
-        int baseThreads;
-
-        if (length <= 50) {
-            baseThreads = 1;
-        } else if (length <= 100) {
-            baseThreads = 2;
-        } else {
-            baseThreads = 4;
-        }
-
-        int threadCount = Math.min(baseThreads, availableCpus);
-        return Math.max(threadCount, 1);
-    }
-
     // Створити масив з діапазону [from; to]
     private static int[] createArrayFromRange(int from, int to) {
         if (from > to) {
@@ -225,17 +299,30 @@ public class ArrayMultiplierApp {
         return arr;
     }
 
-    // Красивий вивід масиву
+    // Вивід масиву: цифри одразу в байтовий буфер ArrayWriter, без великого StringBuilder.
+    // Масив, довший за ArrayWriter.TEXT_LIMIT, текстом друкувався б у десятки разів довше,
+    // ніж множився, тому він іде бінарно у тимчасовий файл (порядок байтів — lb2.byteOrder),
+    // а в консоль — лише шлях до нього
     private static void printArray(int[] array) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-        for (int i = 0; i < array.length; i++) {
-            sb.append(array[i]);
-            if (i < array.length - 1) {
-                sb.append(", ");
+        try {
+            if (array.length > ArrayWriter.TEXT_LIMIT) {
+                ByteOrder order = "little".equals(System.getProperty("lb2.byteOrder", "big"))
+                        ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+                Path file = Files.createTempFile("lb2-array-", ".bin");
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    ArrayWriter writer = new ArrayWriter(channel, ArrayWriter.DEFAULT_BUFFER, order);
+                    writer.writeBinary(array);
+                    writer.flush();
+                }
+                System.out.println(array.length + " int (" + order + ") записано в " + file);
+                return;
             }
+            ArrayWriter writer = new ArrayWriter(Channels.newChannel(System.out));
+            writer.writeText(array);
+            writer.flush();
+            System.out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        sb.append("]");
-        System.out.println(sb);
     }
 }
@@ -0,0 +1,141 @@
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+
+// Швидкий вивід масиву int без StringBuilder і String на кожне число.
+// Цифри пишуться прямо в один байтовий буфер, який перевикористовується і
+// скидається в канал частинами по bufferSize байт — пам'ять не залежить від розміру масиву.
+//
+// Формати:
+// - text   — "[a, b, c]\n", як старий printArray;
+// - binary — сирі int по 4 байти (порядок байтів задається), як вхід MappedFileMultiplier.
+//
+// Текст навіть так у десятки разів повільніший за саме множення (див. OutputBenchmark),
+// тому масиви, довші за TEXT_LIMIT, ArrayMultiplierApp за замовчуванням пише бінарно.
+//
+// Канал належить тому, хто його передав: ArrayWriter його не закриває, лише flush().
+class ArrayWriter implements Flushable {
+
+    static final int DEFAULT_BUFFER = 64 * 1024;
+
+    // Довші масиви за замовчуванням виводяться бінарно: -Dlb2.textLimit=<кількість int>
+    static final int TEXT_LIMIT = Integer.getInteger("lb2.textLimit", 1 << 16);
+
+    private static final int MAX_TEXT_ENTRY = 13; // ", " + до 11 символів числа
+    private static final byte[] DIGIT_PAIRS = new byte[200]; // "00", "01", ..., "99"
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_PAIRS[2 * i] = (byte) ('0' + i / 10);
+            DIGIT_PAIRS[2 * i + 1] = (byte) ('0' + i % 10);
+        }
+    }
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] bytes;
+    private int pos;
+
+    public ArrayWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER, ByteOrder.BIG_ENDIAN);
+    }
+
+    public ArrayWriter(WritableByteChannel channel, int bufferSize, ByteOrder order) {
+        if (channel == null) {
+            throw new IllegalArgumentException("channel не може бути null");
+        }
+        if (bufferSize < 64) {
+            throw new IllegalArgumentException("bufferSize має бути >= 64");
+        }
+        this.channel = channel;
+        this.bytes = new byte[bufferSize];
+        this.buffer = ByteBuffer.wrap(bytes).order(order == null ? ByteOrder.BIG_ENDIAN : order);
+    }
+
+    // Текстовий формат: [a, b, c] і перенесення рядка.
+    // Скільки влазить у буфер, форматуємо з кінця: кожне число пишеться справа наліво
+    // від кінця попереднього, тож довжину числа рахувати не треба. Потім готовий
+    // шматок одним arraycopy зсуваємо впритул до pos.
+    public void writeText(int[] array) throws IOException {
+        ensure(1);
+        bytes[pos++] = '[';
+        int i = 0;
+        while (i < array.length) {
+            int room = (bytes.length - pos) / MAX_TEXT_ENTRY;
+            if (room == 0) {
+                flush();
+                continue;
+            }
+            int end = Math.min(array.length, i + room);
+            int top = pos + (end - i) * MAX_TEXT_ENTRY;
+            int p = top;
+            for (int j = end - 1; j >= i; j--) {
+                p = putIntBackwards(array[j], p);
+                if (j > 0) {
+                    bytes[--p] = ' ';
+                    bytes[--p] = ',';
+                }
+            }
+            System.arraycopy(bytes, p, bytes, pos, top - p);
+            pos += top - p;
+            i = end;
+        }
+        ensure(2);
+        bytes[pos++] = ']';
+        bytes[pos++] = '\n';
+    }
+
+    // Бінарний формат: array.length int-ів поспіль, без заголовка
+    public void writeBinary(int[] array) throws IOException {
+        int done = 0;
+        while (done < array.length) {
+            ensure(Integer.BYTES);
+            int n = Math.min(array.length - done, (bytes.length - pos) / Integer.BYTES);
+            buffer.clear().position(pos);
+            buffer.asIntBuffer().put(array, done, n);
+            pos += n * Integer.BYTES;
+            done += n;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        buffer.clear().limit(pos);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        pos = 0;
+    }
+
+    private void ensure(int space) throws IOException {
+        if (bytes.length - pos < space) {
+            flush();
+        }
+    }
+
+    // Цифри пишемо з кінця, по дві за ділення на 100; повертає позицію першого символу.
+    // Рахуємо у від'ємних числах, щоб Integer.MIN_VALUE не був окремим випадком
+    private int putIntBackwards(int value, int end) {
+        int p = end;
+        int v = value < 0 ? value : -value;
+        while (v <= -100) {
+            int q = v / 100;
+            int r = (q * 100 - v) * 2;
+            v = q;
+            bytes[--p] = DIGIT_PAIRS[r + 1];
+            bytes[--p] = DIGIT_PAIRS[r];
+        }
+        if (v <= -10) {
+            bytes[--p] = DIGIT_PAIRS[-v * 2 + 1];
+            bytes[--p] = DIGIT_PAIRS[-v * 2];
+        } else {
+            bytes[--p] = (byte) ('0' - v);
+        }
+        if (value < 0) {
+            bytes[--p] = '-';
+        }
+        return p;
+    }
+}
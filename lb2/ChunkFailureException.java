@@ -0,0 +1,37 @@
+// Обробка масиву не вдалася: результату немає (ні повного, ні частинного).
+// Reason показує причину, chunk — шматок, через який усе зупинилось
+// (для DEADLINE_EXCEEDED — перший незавершений), attempts — скільки разів його запускали.
+class ChunkFailureException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    enum Reason {
+        FAILED,            // шматок падав attempts разів поспіль
+        DEADLINE_EXCEEDED, // час вийшов, незавершені шматки скасовано
+        INTERRUPTED        // потік, що чекав на результат, перервали
+    }
+
+    private final Reason reason;
+    private final ArrayChunk chunk;
+    private final int attempts;
+
+    public ChunkFailureException(Reason reason, ArrayChunk chunk, int attempts, String message, Throwable cause) {
+        super(reason + " [" + chunk.getStartIndex() + "; " + chunk.getEndIndex() + "] після "
+                + attempts + " спроб(и): " + message, cause);
+        this.reason = reason;
+        this.chunk = chunk;
+        this.attempts = attempts;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public ArrayChunk getChunk() {
+        return chunk;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+}
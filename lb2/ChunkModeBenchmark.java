@@ -0,0 +1,73 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Arrays;
+
+// Порівняння трьох шляхів множення великого масиву:
+// - copy-merge: підмасиви на кожен шматок + CopyOnWriteArrayList + злиття (multiplyArray);
+// - into:       один заздалегідь виділений результат (multiplyArrayInto);
+// - in-place:   результат прямо у вхідний масив (multiplyArrayInPlace).
+// Для кожного — середній час і пік heap понад вхідний масив.
+//
+// Run: javac *.java && java -Xmx4g ChunkModeBenchmark [length=50000000] [threads=cores] [reps=5]
+public class ChunkModeBenchmark {
+
+    public static void main(String[] args) {
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 50_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int reps = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        int factor = 3;
+
+        System.out.printf("length=%,d (%.0f MB), threads=%d, reps=%d%n%n",
+                length, length * 4 / 1048576.0, threads, reps);
+        System.out.printf("%-12s %12s %18s%n", "Mode", "avg ms", "heap peak +MB");
+
+        int[] source = new int[length];
+        for (String mode : new String[]{"copy-merge", "into", "in-place"}) {
+            long totalNanos = 0;
+            long peak = 0;
+            for (int r = 0; r < reps + 1; r++) { // перший прогін — прогрів
+                Arrays.setAll(source, i -> i - length / 2);
+                System.gc();
+                long baseline = heapPeak(true);
+
+                long start = System.nanoTime();
+                int[] result = run(mode, source, factor, threads);
+                long elapsed = System.nanoTime() - start;
+
+                if (result[length - 1] != (length - 1 - length / 2) * factor) {
+                    throw new IllegalStateException("Невірний результат у режимі " + mode);
+                }
+                if (r > 0) {
+                    totalNanos += elapsed;
+                    peak = Math.max(peak, heapPeak(false) - baseline);
+                }
+            }
+            System.out.printf("%-12s %12.1f %18.1f%n", mode, totalNanos / 1e6 / reps, peak / 1048576.0);
+        }
+    }
+
+    private static int[] run(String mode, int[] source, int factor, int threads) {
+        ArrayMultiplicationManager manager = new ArrayMultiplicationManager(source, factor, threads);
+        switch (mode) {
+            case "copy-merge": return manager.multiplyArray();
+            case "into":       return manager.multiplyArrayInto(new int[source.length]);
+            default:           return manager.multiplyArrayInPlace();
+        }
+    }
+
+    // Сума пікового використання heap-пулів (reset=true — скинути піки і повернути поточне)
+    private static long heapPeak(boolean reset) {
+        long sum = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP) continue;
+            if (reset) {
+                pool.resetPeakUsage();
+                sum += pool.getUsage().getUsed();
+            } else {
+                sum += pool.getPeakUsage().getUsed();
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,204 @@
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongUnaryOperator;
+
+// Загальний рушій поелементних перетворень на тій самій схемі, що й ArrayMultiplicationManager:
+// ParallelRunner ділить масив на шматки, кожен шматок пишеться прямо в target.
+//
+// Ядра (kernel) працюють одразу з діапазоном, а не з одним елементом: цикл усередині ядра
+// мономорфний, без boxing, і JIT може його векторизувати. Для int[], long[] і double[] —
+// окремі примітивні ядра.
+//
+// fused(...) склеює кілька ядер в один прохід: шматок обробляється блоками по BLOCK
+// елементів, перше ядро читає source, решта працюють над блоком target, поки він у кеші.
+// Порожній список або null серед ядер — IllegalArgumentException одразу, а не при першому виклику.
+class ElementwiseTransformer {
+
+    static final int BLOCK = 4096; // 16-32 KB — вміщається в L1/L2
+
+    private final ParallelRunner runner;
+
+    // threadCount — стеля паралелізму на спільному пулі
+    public ElementwiseTransformer(int threadCount) {
+        if (threadCount <= 0) {
+            throw new IllegalArgumentException("threadCount має бути > 0");
+        }
+        this.runner = ParallelRunner.shared().withMaxParallelism(threadCount);
+    }
+
+    public ElementwiseTransformer(ParallelRunner runner) {
+        if (runner == null) {
+            throw new IllegalArgumentException("runner не може бути null");
+        }
+        this.runner = runner;
+    }
+
+    // Примітивні ядра: для кожного типу — свій інтерфейс, щоб не було boxing
+
+    interface IntKernel {
+        // dst[i] = f(src[i]) для i з [from; to)
+        void apply(int[] src, int[] dst, int from, int to);
+
+        static IntKernel multiply(int factor) {
+            return (src, dst, from, to) -> { for (int i = from; i < to; i++) dst[i] = src[i] * factor; };
+        }
+
+        static IntKernel add(int addend) {
+            return (src, dst, from, to) -> { for (int i = from; i < to; i++) dst[i] = src[i] + addend; };
+        }
+
+        // x * a + b
+        static IntKernel fma(int a, int b) {
+            return (src, dst, from, to) -> { for (int i = from; i < to; i++) dst[i] = src[i] * a + b; };
+        }
+
+        static IntKernel clamp(int min, int max) {
+            if (min > max) throw new IllegalArgumentException("min не може бути більшим за max");
+            return (src, dst, from, to) -> {
+                for (int i = from; i < to; i++) dst[i] = Math.min(Math.max(src[i], min), max);
+            };
+        }
+
+        static IntKernel of(IntUnaryOperator op) {
+            return (src, dst, from, to) -> { for (int i = from; i < to; i++) dst[i] = op.applyAsInt(src[i]); };
+        }
+
+        static IntKernel fused(IntKernel... kernels) {
+            IntKernel[] ks = checkKernels(kernels).clone();
+            return (src, dst, from, to) -> {
+                for (int b = from; b < to; b += BLOCK) {
+                    int e = Math.min(b + BLOCK, to);
+                    ks[0].apply(src, dst, b, e);
+                    for (int k = 1; k < ks.length; k++) ks[k].apply(dst, dst, b, e);
+                }
+            };
+        }
+    }
+
+    interface LongKernel {
+        void apply(long[] src, long[] dst, int from, int to);
+
+        static LongKernel multiply(long factor) {
+            return (src, dst, from, to) -> { for (int i = from; i < to; i++) dst[i] = src[i] * factor; };
+        }
+
+        static LongKernel add(long addend) {
+            return (src, dst, from, to) -> { for (int i = from; i < to; i++) dst[i] = src[i] + addend; };
+        }
+
+        static LongKernel fma(long a, long b) {
+            return (src, dst, from, to) -> { for (int i = from; i < to; i++) dst[i] = src[i] * a + b; };
+        }
+
+        static LongKernel clamp(long min, long max) {
+            if (min > max) throw new IllegalArgumentException("min не може бути більшим за max");
+            return (src, dst, from, to) -> {
+                for (int i = from; i < to; i++) dst[i] = Math.min(Math.max(src[i], min), max);
+            };
+        }
+
+        static LongKernel of(LongUnaryOperator op) {
+            return (src, dst, from, to) -> { for (int i = from; i < to; i++) dst[i] = op.applyAsLong(src[i]); };
+        }
+
+        static LongKernel fused(LongKernel... kernels) {
+            LongKernel[] ks = checkKernels(kernels).clone();
+            return (src, dst, from, to) -> {
+                for (int b = from; b < to; b += BLOCK) {
+                    int e = Math.min(b + BLOCK, to);
+                    ks[0].apply(src, dst, b, e);
+                    for (int k = 1; k < ks.length; k++) ks[k].apply(dst, dst, b, e);
+                }
+            };
+        }
+    }
+
+    interface DoubleKernel {
+        void apply(double[] src, double[] dst, int from, int to);
+
+        static DoubleKernel multiply(double factor) {
+            return (src, dst, from, to) -> { for (int i = from; i < to; i++) dst[i] = src[i] * factor; };
+        }
+
+        static DoubleKernel add(double addend) {
+            return (src, dst, from, to) -> { for (int i = from; i < to; i++) dst[i] = src[i] + addend; };
+        }
+
+        // Math.fma — одне округлення замість двох
+        static DoubleKernel fma(double a, double b) {
+            return (src, dst, from, to) -> { for (int i = from; i < to; i++) dst[i] = Math.fma(src[i], a, b); };
+        }
+
+        static DoubleKernel clamp(double min, double max) {
+            if (min > max) throw new IllegalArgumentException("min не може бути більшим за max");
+            return (src, dst, from, to) -> {
+                for (int i = from; i < to; i++) dst[i] = Math.min(Math.max(src[i], min), max);
+            };
+        }
+
+        static DoubleKernel of(DoubleUnaryOperator op) {
+            return (src, dst, from, to) -> { for (int i = from; i < to; i++) dst[i] = op.applyAsDouble(src[i]); };
+        }
+
+        static DoubleKernel fused(DoubleKernel... kernels) {
+            DoubleKernel[] ks = checkKernels(kernels).clone();
+            return (src, dst, from, to) -> {
+                for (int b = from; b < to; b += BLOCK) {
+                    int e = Math.min(b + BLOCK, to);
+                    ks[0].apply(src, dst, b, e);
+                    for (int k = 1; k < ks.length; k++) ks[k].apply(dst, dst, b, e);
+                }
+            };
+        }
+    }
+
+    // Паралельне застосування ядра до всього масиву
+
+    public int[] transform(int[] source, int[] target, IntKernel kernel) {
+        checkLengths(source.length, target.length);
+        runner.forEachChunk(source.length, (from, to) -> kernel.apply(source, target, from, to));
+        return target;
+    }
+
+    public int[] transform(int[] source, int[] target, IntUnaryOperator op) {
+        return transform(source, target, IntKernel.of(op));
+    }
+
+    public long[] transform(long[] source, long[] target, LongKernel kernel) {
+        checkLengths(source.length, target.length);
+        runner.forEachChunk(source.length, (from, to) -> kernel.apply(source, target, from, to));
+        return target;
+    }
+
+    public long[] transform(long[] source, long[] target, LongUnaryOperator op) {
+        return transform(source, target, LongKernel.of(op));
+    }
+
+    public double[] transform(double[] source, double[] target, DoubleKernel kernel) {
+        checkLengths(source.length, target.length);
+        runner.forEachChunk(source.length, (from, to) -> kernel.apply(source, target, from, to));
+        return target;
+    }
+
+    public double[] transform(double[] source, double[] target, DoubleUnaryOperator op) {
+        return transform(source, target, DoubleKernel.of(op));
+    }
+
+    private static <K> K[] checkKernels(K[] kernels) {
+        if (kernels == null || kernels.length == 0) {
+            throw new IllegalArgumentException("fused потребує хоча б одне ядро");
+        }
+        for (K kernel : kernels) {
+            if (kernel == null) {
+                throw new IllegalArgumentException("Ядро не може бути null");
+            }
+        }
+        return kernels;
+    }
+
+    private static void checkLengths(int source, int target) {
+        if (source != target) {
+            throw new IllegalArgumentException("target має бути масивом довжини " + source);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Багато коротких викликів multiplyArrayInto поспіль:
+// - pool-per-call: новий newFixedThreadPool(cores) на кожен виклик, shutdown після (стара поведінка);
+// - shared:        спільний ParallelRunner з адаптивною кількістю шматків і послідовним шляхом.
+// Для кожного розміру масиву — мікросекунд на виклик і скільки шматків обрав ParallelRunner.
+//
+// Run: javac *.java && java ExecutorReuseBenchmark [calls=2000]
+public class ExecutorReuseBenchmark {
+
+    public static void main(String[] args) {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int cores = Runtime.getRuntime().availableProcessors();
+        ParallelRunner shared = ParallelRunner.shared();
+
+        System.out.printf("calls=%,d, cores=%d, minGrain=%,d%n%n", calls, cores, ParallelRunner.DEFAULT_MIN_GRAIN);
+        System.out.printf("%12s %8s %18s %12s%n", "length", "parts", "pool-per-call us", "shared us");
+
+        for (int length : new int[]{100, 10_000, 100_000, 1_000_000}) {
+            int[] source = new int[length];
+            Arrays.setAll(source, i -> i);
+            int[] target = new int[length];
+
+            double perCall = measure(calls, () -> {
+                ExecutorService pool = Executors.newFixedThreadPool(cores);
+                try {
+                    // minGrain = 1: як раніше, завжди рівно cores шматків
+                    new ArrayMultiplicationManager(source, 3, new ParallelRunner(pool, cores, 1))
+                            .multiplyArrayInto(target);
+                } finally {
+                    pool.shutdown();
+                }
+            });
+            double sharedCall = measure(calls, () ->
+                    new ArrayMultiplicationManager(source, 3, shared).multiplyArrayInto(target));
+            if (target[length - 1] != (length - 1) * 3) {
+                throw new IllegalStateException("Невірний результат для length=" + length);
+            }
+            System.out.printf("%,12d %8d %18.1f %12.1f%n",
+                    length, shared.parallelismFor(length), perCall, sharedCall);
+        }
+    }
+
+    // Середній час одного виклику в мікросекундах (перша чверть — прогрів)
+    private static double measure(int calls, Runnable call) {
+        for (int i = 0; i < calls / 4; i++) {
+            call.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            call.run();
+        }
+        return (System.nanoTime() - start) / 1e3 / calls;
+    }
+}
@@ -0,0 +1,55 @@
+import java.util.Arrays;
+
+// Ланцюжок із трьох перетворень (x * 3, + 1, clamp) над великим масивом:
+// - chained: три окремі transform — три проходи по пам'яті;
+// - fused:   IntKernel.fused(...) — один прохід, кожен блок обробляється поки в кеші;
+// - lambda:  один IntUnaryOperator із тією ж формулою (для порівняння).
+//
+// Run: javac *.java && java -Xmx2g FusionBenchmark [length=50000000] [threads=cores] [reps=5]
+public class FusionBenchmark {
+
+    public static void main(String[] args) {
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 50_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int reps = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        ElementwiseTransformer transformer = new ElementwiseTransformer(threads);
+        ElementwiseTransformer.IntKernel mul = ElementwiseTransformer.IntKernel.multiply(3);
+        ElementwiseTransformer.IntKernel add = ElementwiseTransformer.IntKernel.add(1);
+        ElementwiseTransformer.IntKernel clamp = ElementwiseTransformer.IntKernel.clamp(-1_000_000, 1_000_000);
+        ElementwiseTransformer.IntKernel fused = ElementwiseTransformer.IntKernel.fused(mul, add, clamp);
+
+        int[] source = new int[length];
+        Arrays.setAll(source, i -> i - length / 2);
+        int[] target = new int[length];
+        int expected = Math.min(Math.max((length - 1 - length / 2) * 3 + 1, -1_000_000), 1_000_000);
+
+        System.out.printf("length=%,d, threads=%d, reps=%d%n%n", length, threads, reps);
+        System.out.printf("%-10s %10s%n", "Mode", "avg ms");
+        for (String mode : new String[]{"chained", "fused", "lambda"}) {
+            long totalNanos = 0;
+            for (int r = 0; r < reps + 1; r++) { // перший прогін — прогрів
+                long start = System.nanoTime();
+                switch (mode) {
+                    case "chained":
+                        transformer.transform(source, target, mul);
+                        transformer.transform(target, target, add);
+                        transformer.transform(target, target, clamp);
+                        break;
+                    case "fused":
+                        transformer.transform(source, target, fused);
+                        break;
+                    default:
+                        transformer.transform(source, target,
+                                x -> Math.min(Math.max(x * 3 + 1, -1_000_000), 1_000_000));
+                }
+                long elapsed = System.nanoTime() - start;
+                if (target[length - 1] != expected) {
+                    throw new IllegalStateException(mode + ": wrong result");
+                }
+                if (r > 0) totalNanos += elapsed;
+            }
+            System.out.printf("%-10s %10.1f%n", mode, totalNanos / 1e6 / reps);
+        }
+    }
+}
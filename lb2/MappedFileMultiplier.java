@@ -0,0 +1,143 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+// Множення бінарного файлу int-ів у інший файл без завантаження в heap.
+// Обидва файли відображаються в пам'ять (FileChannel.map), файл ділиться на сторінки
+// по PAGE байт, а сторінки — на шматки через ParallelRunner (той самий splitIntoChunks).
+// Шматок обробляється вікнами до MAP_WINDOW байт: один MappedByteBuffer не може бути більшим
+// за 2 GB, а так і великі шматки на малій кількості ядер працюють.
+//
+// Вікно обробляється прямо у відображених IntBuffer (OverflowPolicy над IntBuffer, абсолютні
+// get/put) — дані файлу в heap не копіюються взагалі.
+//
+// Run: javac *.java
+//      java MappedFileMultiplier gen <file> <count>                 — файл зі значеннями 0..count-1
+//      java MappedFileMultiplier mul <input> <output> <factor> [wrap|saturate|throw]
+// Порядок байтів: -Dlb2.byteOrder=big|little (за замовчуванням big, як у DataOutputStream)
+class MappedFileMultiplier {
+
+    static final int PAGE = 4096;
+    static final long MAP_WINDOW = 64L << 20;
+    private static final int MIN_PAGES_PER_TASK = 256; // 1 MB — менше не варто ділити
+
+    private final int factor;
+    private final OverflowPolicy policy;
+    private final ByteOrder order;
+    private final ParallelRunner runner;
+
+    public MappedFileMultiplier(int factor, OverflowPolicy policy, ByteOrder order, ParallelRunner runner) {
+        if (policy == null || policy == OverflowPolicy.WIDEN) {
+            throw new IllegalArgumentException("Для файлу int підходять WRAP, SATURATE або THROW");
+        }
+        if (order == null || runner == null) {
+            throw new IllegalArgumentException("order і runner не можуть бути null");
+        }
+        this.factor = factor;
+        this.policy = policy;
+        this.order = order;
+        this.runner = runner.withMinGrain(MIN_PAGES_PER_TASK);
+    }
+
+    // Повертає кількість оброблених елементів; output створюється або перезаписується
+    public long multiply(Path input, Path output) throws IOException {
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            if (size % Integer.BYTES != 0) {
+                throw new IllegalArgumentException("Розмір файлу " + size + " не кратний " + Integer.BYTES);
+            }
+            if (size == 0) {
+                return 0;
+            }
+            out.write(ByteBuffer.allocate(1), size - 1); // одразу задаємо розмір, щоб задачі не розширювали файл
+
+            long pages = (size + PAGE - 1) / PAGE;
+            if (pages > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Файл завеликий: " + size + " байт");
+            }
+            try {
+                runner.forEachChunk((int) pages, (fromPage, toPage) -> {
+                    long from = (long) fromPage * PAGE;
+                    long to = Math.min((long) toPage * PAGE, size);
+                    processRange(in, out, from, to);
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return size / Integer.BYTES;
+        }
+    }
+
+    // Байти [from; to) — початок вирівняний на сторінку, кінець — на сторінку або кінець файлу
+    private void processRange(FileChannel in, FileChannel out, long from, long to) {
+        try {
+            for (long window = from; window < to; window += MAP_WINDOW) {
+                long length = Math.min(MAP_WINDOW, to - window);
+                MappedByteBuffer source = in.map(FileChannel.MapMode.READ_ONLY, window, length);
+                MappedByteBuffer target = out.map(FileChannel.MapMode.READ_WRITE, window, length);
+                IntBuffer src = source.order(order).asIntBuffer();
+                IntBuffer dst = target.order(order).asIntBuffer();
+                try {
+                    policy.multiply(src, dst, src.remaining(), factor);
+                } catch (ArithmeticException e) {
+                    throw new ArithmeticException("Вікно з елемента " + window / Integer.BYTES + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Тестовий файл: count значень 0, 1, 2, ... (через вікна відображення, без heap-масиву)
+    static void generate(Path file, long count, ByteOrder order) throws IOException {
+        long size = count * Integer.BYTES;
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            int value = 0;
+            for (long window = 0; window < size; window += MAP_WINDOW) {
+                IntBuffer dst = out.map(FileChannel.MapMode.READ_WRITE, window, Math.min(MAP_WINDOW, size - window))
+                        .order(order).asIntBuffer();
+                while (dst.hasRemaining()) {
+                    dst.put(value++);
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        ByteOrder order = "little".equals(System.getProperty("lb2.byteOrder", "big"))
+                ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+        if (args.length == 3 && args[0].equals("gen")) {
+            long count = Long.parseLong(args[2]);
+            long start = System.nanoTime();
+            generate(Paths.get(args[1]), count, order);
+            System.out.printf("Записано %,d int за %.0f мс%n", count, (System.nanoTime() - start) / 1e6);
+            return;
+        }
+        if (args.length < 4 || !args[0].equals("mul")) {
+            System.out.println("Використання: gen <file> <count> | mul <input> <output> <factor> [wrap|saturate|throw]");
+            return;
+        }
+        OverflowPolicy policy = args.length > 4
+                ? OverflowPolicy.valueOf(args[4].toUpperCase(Locale.ROOT)) : OverflowPolicy.WRAP;
+        MappedFileMultiplier multiplier = new MappedFileMultiplier(
+                Integer.parseInt(args[3]), policy, order, ParallelRunner.shared());
+
+        long start = System.nanoTime();
+        long count = multiplier.multiply(Paths.get(args[1]), Paths.get(args[2]));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Оброблено %,d int (%.0f MB) за %.0f мс, %.0f MB/s%n", count,
+                count * 4 / 1048576.0, seconds * 1e3, Files.size(Paths.get(args[1])) / 1048576.0 / seconds);
+    }
+}
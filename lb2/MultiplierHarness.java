@@ -0,0 +1,178 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+// Харнес у стилі JMH для стратегій ArrayMultiplicationManager — лише ядро множення,
+// без Scanner, створення масиву й друку (на відміну від заміру в ArrayMultiplierApp.main).
+//
+// Параметри (усі комбінації): size — довжина масиву, threads — стеля паралелізму,
+// executor — shared (спільний ParallelRunner) або per-call (новий пул на кожну операцію).
+// Для кожної комбінації: прогрівні ітерації, потім виміряні ітерації фіксованої тривалості;
+// результат — ops/s ± stdev і швидкість алокацій (як gc.alloc.rate / gc.alloc.rate.norm у JMH),
+// порахована через ThreadMXBean по всіх потоках, включно з потоками пулів, що вже завершились.
+//
+// Режими: copy-merge (multiplyArray), into (multiplyArrayInto), in-place (multiplyArrayInPlace),
+// sequential (простий цикл в одному потоці — базова лінія).
+// Розміри, що не вміщаються в -Xmx, пропускаються (SKIP); для 10^9 потрібно ~ -Xmx16g.
+//
+// Run: javac *.java && java -Xmx16g MultiplierHarness [sizes=100,10000,1000000,100000000,1000000000]
+//        [threads=1,4] [executor=shared,per-call] [modes=copy-merge,into,in-place,sequential]
+//        [warmup=3] [iterations=5] [timeMs=1000]
+public class MultiplierHarness {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Алокації потоків per-call пулів: кожен потік додає свої байти перед завершенням
+    private static final LongAdder DEAD_THREAD_BYTES = new LongAdder();
+
+    public static void main(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected key=value, got: " + a);
+            opts.put(a.substring(0, eq), a.substring(eq + 1));
+        }
+        int[] sizes = Arrays.stream(opts.getOrDefault("sizes", "100,10000,1000000,100000000,1000000000")
+                .split(",")).mapToInt(Integer::parseInt).toArray();
+        int[] threadCounts = Arrays.stream(opts.getOrDefault("threads",
+                "1," + Runtime.getRuntime().availableProcessors()).split(","))
+                .mapToInt(Integer::parseInt).distinct().toArray();
+        String[] executors = opts.getOrDefault("executor", "shared,per-call").split(",");
+        String[] modes = opts.getOrDefault("modes", "copy-merge,into,in-place,sequential").split(",");
+        int warmup = Integer.parseInt(opts.getOrDefault("warmup", "3"));
+        int iterations = Integer.parseInt(opts.getOrDefault("iterations", "5"));
+        long timeNanos = Long.parseLong(opts.getOrDefault("timeMs", "1000")) * 1_000_000L;
+
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+        System.out.printf("# warmup %d x %d ms, measurement %d x %d ms, maxHeap %d MB%n%n", warmup,
+                timeNanos / 1_000_000, iterations, timeNanos / 1_000_000, Runtime.getRuntime().maxMemory() >> 20);
+        System.out.printf("%-12s %12s %8s %9s %14s %12s %14s %14s%n", "Benchmark", "(size)", "(threads)",
+                "(executor)", "ops/s", "± stdev", "alloc MB/s", "alloc B/op");
+
+        for (int size : sizes) {
+            // sequential не залежить від threads/executor — один рядок на розмір
+            for (String mode : modes) {
+                boolean sequential = mode.equals("sequential");
+                for (int threads : sequential ? new int[]{1} : threadCounts) {
+                    for (String executor : sequential ? new String[]{"-"} : executors) {
+                        run(mode, size, threads, executor, warmup, iterations, timeNanos);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void run(String mode, int size, int threads, String executor,
+                            int warmup, int iterations, long timeNanos) {
+        // source + target; copy-merge ще тримає підмасиви і злитий результат
+        long needBytes = (long) size * Integer.BYTES * (mode.equals("copy-merge") ? 4 : 2);
+        if (needBytes > Runtime.getRuntime().maxMemory() * 0.8) {
+            System.out.printf("%-12s %,12d %8d %9s %14s%n", mode, size, threads, executor, "SKIP (heap)");
+            return;
+        }
+
+        int[] source = new int[size];
+        int[] target = new int[size];
+        Arrays.setAll(source, i -> i);
+        Runnable op = operation(mode, source, target, threads, executor);
+
+        double[] opsPerSec = new double[iterations];
+        long allocBytes = 0;
+        long ops = 0;
+        double seconds = 0;
+        for (int w = 0; w < warmup; w++) {
+            iteration(op, timeNanos);
+        }
+        for (int i = 0; i < iterations; i++) {
+            long allocBefore = allocatedBytes();
+            long start = System.nanoTime();
+            long n = iteration(op, timeNanos);
+            long elapsed = System.nanoTime() - start;
+            allocBytes += allocatedBytes() - allocBefore;
+            ops += n;
+            seconds += elapsed / 1e9;
+            opsPerSec[i] = n / (elapsed / 1e9);
+        }
+
+        double mean = Arrays.stream(opsPerSec).average().orElse(0);
+        double stdev = Math.sqrt(Arrays.stream(opsPerSec).map(x -> (x - mean) * (x - mean)).sum()
+                / Math.max(1, iterations - 1));
+        System.out.printf("%-12s %,12d %8d %9s %,14.1f %12.1f %,14.1f %,14.0f%n", mode, size, threads, executor,
+                mean, stdev, allocBytes / 1048576.0 / seconds, (double) allocBytes / Math.max(1, ops));
+    }
+
+    // Виконувати op до кінця ітерації; повертає кількість операцій
+    private static long iteration(Runnable op, long timeNanos) {
+        long end = System.nanoTime() + timeNanos;
+        long n = 0;
+        do {
+            op.run();
+            n++;
+        } while (System.nanoTime() < end);
+        return n;
+    }
+
+    private static Runnable operation(String mode, int[] source, int[] target, int threads, String executor) {
+        if (mode.equals("sequential")) {
+            return () -> {
+                for (int i = 0; i < source.length; i++) {
+                    target[i] = source[i] * 3;
+                }
+            };
+        }
+        return () -> {
+            ExecutorService pool = null;
+            ParallelRunner runner;
+            switch (executor) {
+                case "shared":
+                    runner = ParallelRunner.shared().withMaxParallelism(threads);
+                    break;
+                case "per-call":
+                    pool = newCountingPool(threads);
+                    runner = new ParallelRunner(pool, threads, ParallelRunner.DEFAULT_MIN_GRAIN);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown executor: " + executor);
+            }
+            try {
+                ArrayMultiplicationManager manager = new ArrayMultiplicationManager(source, 3, runner);
+                switch (mode) {
+                    case "copy-merge": manager.multiplyArray(); break;
+                    case "into":       manager.multiplyArrayInto(target); break;
+                    case "in-place":   manager.multiplyArrayInPlace(); break;
+                    default: throw new IllegalArgumentException("Unknown mode: " + mode);
+                }
+            } finally {
+                if (pool != null) pool.shutdown();
+            }
+        };
+    }
+
+    // Пул, потоки якого перед завершенням записують, скільки байт виділили
+    private static ExecutorService newCountingPool(int threads) {
+        return Executors.newFixedThreadPool(threads, r -> new Thread(() -> {
+            try {
+                r.run();
+            } finally {
+                DEAD_THREAD_BYTES.add(THREADS.getCurrentThreadAllocatedBytes());
+            }
+        }));
+    }
+
+    // Живі потоки + потоки, що вже завершились (per-call пули)
+    private static long allocatedBytes() {
+        long[] ids = THREADS.getAllThreadIds();
+        long sum = DEAD_THREAD_BYTES.sum();
+        for (long bytes : THREADS.getThreadAllocatedBytes(ids)) {
+            if (bytes > 0) sum += bytes;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,64 @@
+// Внутрішній цикл множення шматка: dst[dstFrom + i] = src[srcFrom + i] * factor, i з [0; length).
+// Дві реалізації:
+// - SCALAR — звичайний цикл (JIT сам може його автовекторизувати);
+// - VectorMultiplyKernel з simd/ — явний IntVector з jdk.incubator.vector, 8-16 int за інструкцію.
+//
+// Векторне ядро компілюється окремо, бо потребує інкубаторного модуля:
+//   javac --add-modules jdk.incubator.vector -d . simd/VectorMultiplyKernel.java
+//   java --add-modules jdk.incubator.vector ArrayMultiplierApp
+// Вибір: -Dlb2.kernel=auto|scalar|vector (auto — вектор, якщо модуль і клас доступні, інакше скаляр)
+interface MultiplyKernel {
+
+    void multiply(int[] src, int srcFrom, int[] dst, int dstFrom, int length, int factor);
+
+    MultiplyKernel SCALAR = new MultiplyKernel() {
+        @Override
+        public void multiply(int[] src, int srcFrom, int[] dst, int dstFrom, int length, int factor) {
+            for (int i = 0; i < length; i++) {
+                dst[dstFrom + i] = src[srcFrom + i] * factor;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "scalar";
+        }
+    };
+
+    // Ядро за -Dlb2.kernel, визначається один раз
+    MultiplyKernel DEFAULT = select(System.getProperty("lb2.kernel", "auto"));
+
+    static MultiplyKernel select(String name) {
+        switch (name) {
+            case "scalar":
+                return SCALAR;
+            case "vector": {
+                MultiplyKernel vector = loadVector();
+                if (vector == null) {
+                    throw new IllegalStateException("Векторне ядро недоступне: потрібні --add-modules "
+                            + "jdk.incubator.vector і скомпільований simd/VectorMultiplyKernel.java");
+                }
+                return vector;
+            }
+            case "auto": {
+                MultiplyKernel vector = loadVector();
+                return vector != null ? vector : SCALAR;
+            }
+            default:
+                throw new IllegalArgumentException("Невідоме ядро: " + name);
+        }
+    }
+
+    // null, якщо модуль не підключено або клас не скомпільовано
+    static MultiplyKernel loadVector() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            return (MultiplyKernel) Class.forName("VectorMultiplyKernel")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Random;
+
+// Вивід великого результату проти самого множення:
+// - StringBuilder:    старий printArray (один рядок на весь масив, потім у потік);
+// - ArrayWriter text: цифри в буфер 64 KB, скидання в канал частинами;
+// - ArrayWriter bin:  сирі int по 4 байти.
+// Вивід іде в канал, що лише рахує байти, тож міряється форматування, а не диск/термінал.
+// Стовпець "x multiply" — у скільки разів вивід довший за multiplyArrayInto; вимога —
+// не більше REQUIRED_RATIO. Текст її не виконує, тому ArrayMultiplierApp масиви,
+// довші за ArrayWriter.TEXT_LIMIT, пише бінарно.
+//
+// Run: javac *.java && java -Xmx4g OutputBenchmark [length=20000000] [reps=3]
+public class OutputBenchmark {
+
+    // Вивід результату не повинен займати більше ніж удвічі довше за саме множення
+    private static final double REQUIRED_RATIO = 2.0;
+
+    public static void main(String[] args) throws IOException {
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+        int reps = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        int[] array = new Random(42).ints(length).toArray();
+        check();
+
+        ArrayMultiplicationManager manager = new ArrayMultiplicationManager(array, 3, ParallelRunner.shared());
+        int[] target = new int[length];
+        double multiplyMs = measure(reps, () -> manager.multiplyArrayInto(target));
+
+        System.out.printf("length=%,d, reps=%d, multiplyArrayInto для порівняння: %.1f ms%n%n", length, reps, multiplyMs);
+        System.out.printf("%-18s %10s %10s %12s %12s %6s%n", "Writer", "avg ms", "MB", "M ints/s",
+                "x multiply", "<= " + REQUIRED_RATIO);
+        for (String mode : new String[]{"StringBuilder", "ArrayWriter text", "ArrayWriter bin"}) {
+            CountingChannel sink = new CountingChannel();
+            double ms = measure(reps, () -> write(mode, array, sink));
+            double ratio = ms / multiplyMs;
+            System.out.printf("%-18s %10.1f %10.1f %12.1f %12.1f %6s%n",
+                    mode, ms, sink.bytes / (reps + 1) / 1048576.0, length / ms / 1e3,
+                    ratio, ratio <= REQUIRED_RATIO ? "так" : "ні");
+        }
+    }
+
+    private static void write(String mode, int[] array, WritableByteChannel sink) {
+        try {
+            switch (mode) {
+                case "StringBuilder": {
+                    StringBuilder sb = new StringBuilder();
+                    sb.append("[");
+                    for (int i = 0; i < array.length; i++) {
+                        sb.append(array[i]);
+                        if (i < array.length - 1) {
+                            sb.append(", ");
+                        }
+                    }
+                    sb.append("]\n");
+                    sink.write(ByteBuffer.wrap(sb.toString().getBytes()));
+                    break;
+                }
+                case "ArrayWriter text": {
+                    ArrayWriter writer = new ArrayWriter(sink);
+                    writer.writeText(array);
+                    writer.flush();
+                    break;
+                }
+                default: {
+                    ArrayWriter writer = new ArrayWriter(sink);
+                    writer.writeBinary(array);
+                    writer.flush();
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Середній час у мс (перший прогін — прогрів)
+    private static double measure(int reps, Runnable run) {
+        long total = 0;
+        for (int r = 0; r < reps + 1; r++) {
+            long start = System.nanoTime();
+            run.run();
+            if (r > 0) total += System.nanoTime() - start;
+        }
+        return total / 1e6 / reps;
+    }
+
+    // Текст ArrayWriter збігається з Arrays.toString на граничних значеннях
+    private static void check() throws IOException {
+        int[] edge = {0, 1, -1, 9, 10, 99, 100, -100, 123456789, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ArrayWriter writer = new ArrayWriter(Channels.newChannel(bytes), 64, null);
+        writer.writeText(edge);
+        writer.writeBinary(edge);
+        writer.flush();
+        String text = Arrays.toString(edge) + "\n";
+        byte[] out = bytes.toByteArray();
+        if (!new String(out, 0, text.length()).equals(text) || out.length != text.length() + edge.length * 4
+                || ByteBuffer.wrap(out, text.length() + 40, 4).getInt() != Integer.MIN_VALUE) {
+            throw new IllegalStateException("ArrayWriter: невірний вивід");
+        }
+    }
+
+    private static final class CountingChannel implements WritableByteChannel {
+        long bytes;
+
+        @Override
+        public int write(ByteBuffer src) {
+            int n = src.remaining();
+            src.position(src.limit());
+            bytes += n;
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,132 @@
+import java.nio.IntBuffer;
+
+// Що робити, коли source[i] * factor не вміщається в int:
+// - WRAP     — як звичайне множення Java (переповнення по модулю 2^32);
+// - SATURATE — обрізати до Integer.MIN_VALUE / Integer.MAX_VALUE;
+// - THROW    — ArithmeticException з індексом першого переповнення;
+// - WIDEN    — результат у long[]: добуток двох int завжди вміщається в long.
+//
+// Перевірки без розгалужень усередині циклу: добуток рахується в long,
+// насичення — через min/max, переповнення для THROW накопичується в прапорець
+// і перевіряється раз на блок. Такі цикли JIT може векторизувати.
+//
+// Варіант над IntBuffer працює прямо з буфером (наприклад, відображеним файлом) через
+// абсолютні get(i)/put(i, v) — дані не копіюються в heap.
+enum OverflowPolicy {
+
+    WRAP {
+        @Override
+        void multiply(int[] src, int srcFrom, int[] dst, int dstFrom, int length, int factor) {
+            MultiplyKernel.DEFAULT.multiply(src, srcFrom, dst, dstFrom, length, factor);
+        }
+
+        @Override
+        void multiply(IntBuffer src, IntBuffer dst, int length, int factor) {
+            for (int i = 0; i < length; i++) {
+                dst.put(i, src.get(i) * factor);
+            }
+        }
+    },
+
+    SATURATE {
+        @Override
+        void multiply(int[] src, int srcFrom, int[] dst, int dstFrom, int length, int factor) {
+            for (int i = 0; i < length; i++) {
+                long product = (long) src[srcFrom + i] * factor;
+                dst[dstFrom + i] = (int) Math.min(Math.max(product, Integer.MIN_VALUE), Integer.MAX_VALUE);
+            }
+        }
+
+        @Override
+        void multiply(IntBuffer src, IntBuffer dst, int length, int factor) {
+            for (int i = 0; i < length; i++) {
+                long product = (long) src.get(i) * factor;
+                dst.put(i, (int) Math.min(Math.max(product, Integer.MIN_VALUE), Integer.MAX_VALUE));
+            }
+        }
+    },
+
+    THROW {
+        @Override
+        void multiply(int[] src, int srcFrom, int[] dst, int dstFrom, int length, int factor) {
+            for (int block = 0; block < length; block += BLOCK) {
+                int end = Math.min(block + BLOCK, length);
+                long overflow = 0;
+                for (int i = block; i < end; i++) {
+                    long product = (long) src[srcFrom + i] * factor;
+                    dst[dstFrom + i] = (int) product;
+                    overflow |= product ^ (int) product; // != 0, якщо старші біти не збігаються зі знаком
+                }
+                if (overflow != 0) {
+                    throw overflowAt(src, srcFrom, block, end, factor);
+                }
+            }
+        }
+
+        @Override
+        void multiply(IntBuffer src, IntBuffer dst, int length, int factor) {
+            for (int block = 0; block < length; block += BLOCK) {
+                int end = Math.min(block + BLOCK, length);
+                long overflow = 0;
+                for (int i = block; i < end; i++) {
+                    long product = (long) src.get(i) * factor;
+                    dst.put(i, (int) product);
+                    overflow |= product ^ (int) product;
+                }
+                if (overflow != 0) {
+                    throw overflowAt(src, block, end, factor);
+                }
+            }
+        }
+    },
+
+    WIDEN {
+        @Override
+        void multiply(int[] src, int srcFrom, int[] dst, int dstFrom, int length, int factor) {
+            throw new IllegalArgumentException("WIDEN дає long[] — використовуйте multiplyArrayWide");
+        }
+
+        @Override
+        void multiply(IntBuffer src, IntBuffer dst, int length, int factor) {
+            throw new IllegalArgumentException("WIDEN не вміщається в IntBuffer");
+        }
+    };
+
+    private static final int BLOCK = 4096;
+
+    // dst[dstFrom + i] = src[srcFrom + i] * factor за цією політикою, i з [0; length)
+    abstract void multiply(int[] src, int srcFrom, int[] dst, int dstFrom, int length, int factor);
+
+    // dst.get(i) = src.get(i) * factor, i з [0; length) від нуля буфера; позиції буферів не змінюються
+    abstract void multiply(IntBuffer src, IntBuffer dst, int length, int factor);
+
+    // Для WIDEN: кожен добуток точний
+    static void multiplyWide(int[] src, int srcFrom, long[] dst, int dstFrom, int length, int factor) {
+        for (int i = 0; i < length; i++) {
+            dst[dstFrom + i] = (long) src[srcFrom + i] * factor;
+        }
+    }
+
+    // Повільний шлях лише після того, як блок уже переповнився: шукаємо точний індекс
+    private static ArithmeticException overflowAt(int[] src, int srcFrom, int from, int to, int factor) {
+        for (int i = from; i < to; i++) {
+            long product = (long) src[srcFrom + i] * factor;
+            if (product != (int) product) {
+                return new ArithmeticException("Переповнення int: source[" + (srcFrom + i) + "] = "
+                        + src[srcFrom + i] + ", множник " + factor);
+            }
+        }
+        return new ArithmeticException("Переповнення int");
+    }
+
+    private static ArithmeticException overflowAt(IntBuffer src, int from, int to, int factor) {
+        for (int i = from; i < to; i++) {
+            long product = (long) src.get(i) * factor;
+            if (product != (int) product) {
+                return new ArithmeticException("Переповнення int: елемент " + i + " = "
+                        + src.get(i) + ", множник " + factor);
+            }
+        }
+        return new ArithmeticException("Переповнення int");
+    }
+}
@@ -0,0 +1,61 @@
+import java.util.Arrays;
+
+// Ціна безпеки: кожна політика переповнення на тому самому масиві.
+// Дані підібрані так, щоб переповнень не було (інакше THROW не дійде до кінця),
+// тож WRAP/SATURATE/THROW дають однаковий результат і порівнюється лише пропускна здатність.
+//
+// Run: javac *.java && java OverflowPolicyBenchmark [length=50000000] [threads=cores] [reps=5]
+public class OverflowPolicyBenchmark {
+
+    public static void main(String[] args) {
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 50_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int reps = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        int factor = 7;
+
+        int[] source = new int[length];
+        Arrays.setAll(source, i -> i - length / 2);
+        int[] target = new int[length];
+        ArrayMultiplicationManager manager = new ArrayMultiplicationManager(source, factor, threads);
+
+        System.out.printf("length=%,d, threads=%d, reps=%d%n%n", length, threads, reps);
+        System.out.printf("%-10s %10s %16s%n", "Policy", "avg ms", "M elements/s");
+
+        for (OverflowPolicy policy : OverflowPolicy.values()) {
+            long totalNanos = 0;
+            long last = 0;
+            for (int r = 0; r < reps + 1; r++) { // перший прогін — прогрів
+                long start = System.nanoTime();
+                if (policy == OverflowPolicy.WIDEN) {
+                    last = manager.multiplyArrayWide()[length - 1];
+                } else {
+                    last = manager.multiplyArrayInto(target, policy)[length - 1];
+                }
+                long elapsed = System.nanoTime() - start;
+                if (r > 0) totalNanos += elapsed;
+            }
+            if (last != (long) (length - 1 - length / 2) * factor) {
+                throw new IllegalStateException("Невірний результат для " + policy);
+            }
+            double avgNanos = (double) totalNanos / reps;
+            System.out.printf("%-10s %10.1f %16.0f%n", policy, avgNanos / 1e6, length / avgNanos * 1e3);
+        }
+
+        // Перевірка граничних випадків
+        int[] edge = {Integer.MAX_VALUE, Integer.MIN_VALUE, 1, -1};
+        ArrayMultiplicationManager edgeManager = new ArrayMultiplicationManager(edge, 2, 1);
+        int[] saturated = edgeManager.multiplyArrayInto(new int[edge.length], OverflowPolicy.SATURATE);
+        long[] wide = edgeManager.multiplyArrayWide();
+        String thrown;
+        try {
+            edgeManager.multiplyArrayInto(new int[edge.length], OverflowPolicy.THROW);
+            thrown = "немає винятку";
+        } catch (ArithmeticException e) {
+            thrown = e.getMessage();
+        }
+        System.out.println();
+        System.out.println("SATURATE: " + Arrays.toString(saturated));
+        System.out.println("WIDEN:    " + Arrays.toString(wide));
+        System.out.println("THROW:    " + thrown);
+    }
+}
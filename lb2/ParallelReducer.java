@@ -0,0 +1,212 @@
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+// Паралельні згортки і префіксні суми над int[] на тій самій розбивці, що й множення
+// (splitIntoChunks, кількість шматків — ParallelRunner.parallelismFor).
+// Суми рахуються в long, тож не переповнюються навіть для мільярда int.
+// Скалярний добуток — ні: один добуток int * int сягає 2^62, і вже два переповнюють long.
+// Тому добутки сумуються точно: старші і молодші 32 біти окремо, разом — 128-бітне число;
+// dot повертає long або кидає ArithmeticException, dotExact — точне значення BigInteger.
+//
+// Префіксна сума — двопрохідний блоковий алгоритм:
+//   1) кожен шматок паралельно рахує свою суму;
+//   2) послідовно — зсув кожного шматка (сума всіх попередніх), це лише parts чисел;
+//   3) кожен шматок паралельно пише свою префіксну суму, починаючи зі свого зсуву.
+// Масив читається двічі, але обидва проходи паралельні.
+class ParallelReducer {
+
+    private final ParallelRunner runner;
+
+    public ParallelReducer(ParallelRunner runner) {
+        if (runner == null) {
+            throw new IllegalArgumentException("runner не може бути null");
+        }
+        this.runner = runner;
+    }
+
+    public long sum(int[] array) {
+        return combine(array.length, chunk -> () -> sumRange(array, chunk.getStartIndex(), chunk.getEndIndex() + 1));
+    }
+
+    // Скалярний добуток; ArithmeticException, якщо результат не вміщається в long
+    // (проміжні суми можуть виходити за long — на результат це не впливає)
+    public long dot(int[] a, int[] b) {
+        long[] acc = dot128(a, b);
+        if (acc[0] != acc[1] >> 63) {
+            throw new ArithmeticException("Скалярний добуток не вміщається в long");
+        }
+        return acc[1];
+    }
+
+    // Точний скалярний добуток для будь-яких int
+    public BigInteger dotExact(int[] a, int[] b) {
+        long[] acc = dot128(a, b);
+        return BigInteger.valueOf(acc[0]).shiftLeft(64).add(new BigInteger(Long.toUnsignedString(acc[1])));
+    }
+
+    // {hi, lo} — 128-бітна сума добутків зі знаком
+    private long[] dot128(int[] a, int[] b) {
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("Масиви мають бути однакової довжини");
+        }
+        long high = 0;
+        long low = 0;
+        List<long[]> parts = perChunk(chunks(a.length),
+                chunk -> () -> dotRange(a, b, chunk.getStartIndex(), chunk.getEndIndex() + 1));
+        for (long[] part : parts) {
+            high += part[0];
+            low += part[1];
+        }
+        // high * 2^32 + low у 128 бітах; low >= 0
+        long hi = high >> 32;
+        long lo = high << 32;
+        long sum = lo + low;
+        if (Long.compareUnsigned(sum, lo) < 0) {
+            hi++;
+        }
+        return new long[]{hi, sum};
+    }
+
+    // Добуток p (|p| <= 2^62) ділиться на p >> 32 і p & 0xFFFFFFFF, кожна половина сумується в long:
+    // для масиву з менш ніж 2^31 елементів жодна з двох сум не переповнюється, і цикл без розгалужень
+    private static long[] dotRange(int[] a, int[] b, int from, int to) {
+        long high = 0;
+        long low = 0;
+        for (int i = from; i < to; i++) {
+            long p = (long) a[i] * b[i];
+            high += p >> 32;
+            low += p & 0xFFFFFFFFL;
+        }
+        return new long[]{high, low};
+    }
+
+    public int min(int[] array) {
+        checkNotEmpty(array);
+        List<Integer> parts = perChunk(chunks(array.length), chunk -> () -> {
+            int m = Integer.MAX_VALUE;
+            for (int i = chunk.getStartIndex(); i <= chunk.getEndIndex(); i++) {
+                m = Math.min(m, array[i]);
+            }
+            return m;
+        });
+        return parts.stream().mapToInt(Integer::intValue).min().getAsInt();
+    }
+
+    public int max(int[] array) {
+        checkNotEmpty(array);
+        List<Integer> parts = perChunk(chunks(array.length), chunk -> () -> {
+            int m = Integer.MIN_VALUE;
+            for (int i = chunk.getStartIndex(); i <= chunk.getEndIndex(); i++) {
+                m = Math.max(m, array[i]);
+            }
+            return m;
+        });
+        return parts.stream().mapToInt(Integer::intValue).max().getAsInt();
+    }
+
+    // target[i] = array[0] + ... + array[i]
+    public long[] inclusiveScan(int[] array, long[] target) {
+        return scan(array, target, true);
+    }
+
+    // target[i] = array[0] + ... + array[i - 1], target[0] = 0
+    public long[] exclusiveScan(int[] array, long[] target) {
+        return scan(array, target, false);
+    }
+
+    private long[] scan(int[] array, long[] target, boolean inclusive) {
+        if (target == null || target.length != array.length) {
+            throw new IllegalArgumentException("target має бути масивом довжини " + array.length);
+        }
+        List<ArrayChunk> chunks = chunks(array.length);
+        if (chunks.size() <= 1) {
+            scanRange(array, target, 0, array.length, 0, inclusive);
+            return target;
+        }
+
+        // Прохід 1: суми шматків (останній не потрібен — після нього зсувів немає)
+        List<Long> sums = perChunk(chunks.subList(0, chunks.size() - 1),
+                chunk -> () -> sumRange(array, chunk.getStartIndex(), chunk.getEndIndex() + 1));
+
+        // Зсуви шматків — послідовно, їх лише parts
+        Map<ArrayChunk, Long> offsets = new IdentityHashMap<>();
+        long offset = 0;
+        for (int c = 0; c < chunks.size(); c++) {
+            offsets.put(chunks.get(c), offset);
+            if (c < sums.size()) {
+                offset += sums.get(c);
+            }
+        }
+
+        // Прохід 2: кожен шматок — від свого зсуву
+        perChunk(chunks, chunk -> () -> {
+            scanRange(array, target, chunk.getStartIndex(), chunk.getEndIndex() + 1, offsets.get(chunk), inclusive);
+            return null;
+        });
+        return target;
+    }
+
+    private long combine(int length, Function<ArrayChunk, Callable<Long>> task) {
+        long total = 0;
+        for (long part : perChunk(chunks(length), task)) {
+            total += part;
+        }
+        return total;
+    }
+
+    // Результат кожного шматка в порядку шматків; один шматок — у потоці, що викликає
+    private <T> List<T> perChunk(List<ArrayChunk> chunks, Function<ArrayChunk, Callable<T>> task) {
+        if (chunks.size() > 1) {
+            return runner.invokeAll(chunks, task, null, 0);
+        }
+        List<T> results = new ArrayList<>(1);
+        for (ArrayChunk chunk : chunks) {
+            try {
+                results.add(task.apply(chunk).call());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException("Помилка в одному з потоків", e);
+            }
+        }
+        return results;
+    }
+
+    private List<ArrayChunk> chunks(int length) {
+        return ArrayMultiplicationManager.splitIntoChunks(length, runner.parallelismFor(length));
+    }
+
+    private static long sumRange(int[] array, int from, int to) {
+        long s = 0;
+        for (int i = from; i < to; i++) {
+            s += array[i];
+        }
+        return s;
+    }
+
+    private static void scanRange(int[] array, long[] target, int from, int to, long offset, boolean inclusive) {
+        long running = offset;
+        if (inclusive) {
+            for (int i = from; i < to; i++) {
+                running += array[i];
+                target[i] = running;
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                target[i] = running;
+                running += array[i];
+            }
+        }
+    }
+
+    private static void checkNotEmpty(int[] array) {
+        if (array.length == 0) {
+            throw new IllegalArgumentException("Масив порожній");
+        }
+    }
+}
@@ -0,0 +1,195 @@
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+// Довгоживучий виконавець для шматкової обробки масивів.
+// Замість нового пулу на кожен виклик — один спільний (shared()) або переданий ззовні executor.
+//
+// Кількість шматків визначається розміром масиву:
+//   parts = clamp(length / minGrain, 1, maxParallelism)
+// Якщо вийшов один шматок — працюємо послідовно в потоці, що викликає, без жодної задачі.
+// Інакше останній шматок теж виконує потік, що викликає, а не чекає без діла.
+//
+// Налаштування спільного: -Dlb2.minGrain (за замовчуванням 32768 елементів),
+// -Dlb2.parallelism (за замовчуванням кількість ядер)
+class ParallelRunner {
+
+    static final int DEFAULT_MIN_GRAIN = Integer.getInteger("lb2.minGrain", 32_768);
+
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+
+    private static final class Holder {
+        static final ParallelRunner SHARED = new ParallelRunner(
+                newDaemonPool(Integer.getInteger("lb2.parallelism", CORES)),
+                Integer.getInteger("lb2.parallelism", CORES), DEFAULT_MIN_GRAIN);
+    }
+
+    // Тіло одного шматка: обробити індекси [from; to)
+    interface ChunkBody {
+        void run(int from, int to);
+    }
+
+    private final ExecutorService executor;
+    private final int maxParallelism;
+    private final int minGrain;
+
+    // executor належить тому, хто його передав: ParallelRunner його не закриває
+    public ParallelRunner(ExecutorService executor, int maxParallelism, int minGrain) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor не може бути null");
+        }
+        if (maxParallelism <= 0) {
+            throw new IllegalArgumentException("maxParallelism має бути > 0");
+        }
+        if (minGrain <= 0) {
+            throw new IllegalArgumentException("minGrain має бути > 0");
+        }
+        this.executor = executor;
+        this.maxParallelism = maxParallelism;
+        this.minGrain = minGrain;
+    }
+
+    // Спільний пул на весь процес (daemon-потоки, створюється при першому зверненні)
+    static ParallelRunner shared() {
+        return Holder.SHARED;
+    }
+
+    // Той самий executor, інша стеля паралелізму
+    ParallelRunner withMaxParallelism(int maxParallelism) {
+        return new ParallelRunner(executor, maxParallelism, minGrain);
+    }
+
+    // Той самий executor, інший мінімальний шматок
+    ParallelRunner withMinGrain(int minGrain) {
+        return new ParallelRunner(executor, maxParallelism, minGrain);
+    }
+
+    ExecutorService executor() {
+        return executor;
+    }
+
+    // Скільки шматків варто робити для масиву такої довжини
+    int parallelismFor(int length) {
+        int byGrain = length / minGrain;
+        return Math.max(1, Math.min(byGrain, maxParallelism));
+    }
+
+    // Виконати body над усіма шматками [0; length) і дочекатися завершення
+    void forEachChunk(int length, ChunkBody body) {
+        int parts = parallelismFor(length);
+        if (parts == 1) {
+            body.run(0, length); // послідовний шлях: жодних задач і Future
+            return;
+        }
+
+        List<ArrayChunk> chunks = ArrayMultiplicationManager.splitIntoChunks(length, parts);
+        List<Future<?>> futures = new ArrayList<>(chunks.size() - 1);
+        try {
+            for (int i = 0; i < chunks.size() - 1; i++) {
+                int from = chunks.get(i).getStartIndex();
+                int to = chunks.get(i).getEndIndex() + 1;
+                futures.add(executor.submit(() -> body.run(from, to)));
+            }
+            ArrayChunk last = chunks.get(chunks.size() - 1);
+            body.run(last.getStartIndex(), last.getEndIndex() + 1);
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Виконання перервано", e);
+        } catch (ExecutionException e) {
+            // Непровірений виняток задачі — як є, так само як із шматка в потоці, що викликає
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Помилка в одному з потоків", e);
+        } finally {
+            for (Future<?> future : futures) {
+                future.cancel(true); // для вже завершених — нічого не робить
+            }
+        }
+    }
+
+    // Запустити задачу для кожного шматка і повернути результати в порядку шматків.
+    // Шматок, що впав, перезапускається до maxRetries разів; якщо й далі падає, вийшов
+    // timeout (null — без обмеження) або потік перервали — решта задач скасовується
+    // і кидається ChunkFailureException. Частинного результату не буває.
+    <T> List<T> invokeAll(List<ArrayChunk> chunks, Function<ArrayChunk, Callable<T>> tasks,
+                          Duration timeout, int maxRetries) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries має бути >= 0");
+        }
+        long deadline = timeout == null ? 0 : System.nanoTime() + timeout.toNanos();
+        CompletionService<T> completion = new ExecutorCompletionService<>(executor);
+        Map<Future<T>, Integer> pending = new HashMap<>();
+        int[] attempts = new int[chunks.size()];
+        List<T> results = new ArrayList<>(chunks.size());
+        try {
+            for (int i = 0; i < chunks.size(); i++) {
+                results.add(null);
+                attempts[i] = 1;
+                pending.put(completion.submit(tasks.apply(chunks.get(i))), i);
+            }
+            while (!pending.isEmpty()) {
+                Future<T> done;
+                if (timeout == null) {
+                    done = completion.take();
+                } else {
+                    long left = deadline - System.nanoTime();
+                    done = left > 0 ? completion.poll(left, TimeUnit.NANOSECONDS) : null;
+                }
+                if (done == null) {
+                    int first = pending.values().stream().min(Integer::compare).orElseThrow();
+                    throw new ChunkFailureException(ChunkFailureException.Reason.DEADLINE_EXCEEDED,
+                            chunks.get(first), attempts[first],
+                            pending.size() + " шматків не завершились за " + timeout, null);
+                }
+
+                int i = pending.remove(done);
+                try {
+                    results.set(i, done.get());
+                } catch (ExecutionException e) {
+                    if (attempts[i] > maxRetries) {
+                        throw new ChunkFailureException(ChunkFailureException.Reason.FAILED,
+                                chunks.get(i), attempts[i], String.valueOf(e.getCause()), e.getCause());
+                    }
+                    attempts[i]++;
+                    pending.put(completion.submit(tasks.apply(chunks.get(i))), i);
+                }
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            int first = pending.isEmpty() ? 0 : pending.values().stream().min(Integer::compare).orElseThrow();
+            throw new ChunkFailureException(ChunkFailureException.Reason.INTERRUPTED,
+                    chunks.get(first), attempts[first], "Виконання перервано", e);
+        } finally {
+            for (Future<T> future : pending.keySet()) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static ExecutorService newDaemonPool(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "lb2-worker-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
@@ -0,0 +1,118 @@
+import java.math.BigInteger;
+import java.util.Random;
+
+// Масштабування ParallelReducer за кількістю потоків: sum, dot, min, max,
+// inclusive/exclusive scan. Для кожної операції — M елементів/с і прискорення
+// відносно одного потоку; результати звіряються з послідовним підрахунком.
+//
+// Run: javac *.java && java -Xmx4g ReductionBenchmark [length=50000000] [reps=5]
+public class ReductionBenchmark {
+
+    public static void main(String[] args) {
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 50_000_000;
+        int reps = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        Random random = new Random(42);
+        int[] a = random.ints(length).toArray(); // повний діапазон int — сума в int переповнилась би
+        int[] b = random.ints(length).toArray();
+        long[] scan = new long[length];
+        check(a, b, scan);
+
+        System.out.printf("length=%,d, reps=%d, cores=%d%n%n", length, reps, cores);
+        System.out.printf("%-10s %8s %14s %10s%n", "Operation", "threads", "M elements/s", "speedup");
+        for (String op : new String[]{"sum", "dot", "min", "max", "inclusive", "exclusive"}) {
+            double single = 0;
+            for (int threads = 1; threads <= cores; threads *= 2) {
+                ParallelReducer reducer = new ParallelReducer(ParallelRunner.shared().withMaxParallelism(threads));
+                long total = 0;
+                for (int r = 0; r < reps + 1; r++) { // перший прогін — прогрів
+                    long start = System.nanoTime();
+                    run(op, reducer, a, b, scan);
+                    if (r > 0) total += System.nanoTime() - start;
+                }
+                double rate = (double) length * reps / total * 1e3;
+                if (threads == 1) single = rate;
+                System.out.printf("%-10s %8d %14.0f %10.2f%n", op, threads, rate, rate / single);
+            }
+        }
+    }
+
+    private static long run(String op, ParallelReducer reducer, int[] a, int[] b, long[] scan) {
+        switch (op) {
+            case "sum":       return reducer.sum(a);
+            case "dot":       return reducer.dotExact(a, b).longValue();
+            case "min":       return reducer.min(a);
+            case "max":       return reducer.max(a);
+            case "inclusive": return reducer.inclusiveScan(a, scan)[a.length - 1];
+            default:          return reducer.exclusiveScan(a, scan)[a.length - 1];
+        }
+    }
+
+    // Паралельний результат == послідовний, на кількох ступенях паралелізму.
+    // Скалярний добуток звіряється з BigInteger: послідовний цикл у long переповнився б так само.
+    private static void check(int[] a, int[] b, long[] scan) {
+        checkDotEdges();
+        long sum = 0;
+        BigInteger dot = BigInteger.ZERO;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i];
+            dot = dot.add(BigInteger.valueOf((long) a[i] * b[i]));
+            min = Math.min(min, a[i]);
+            max = Math.max(max, a[i]);
+        }
+        for (int threads : new int[]{1, 3, 8}) {
+            ParallelReducer reducer = new ParallelReducer(
+                    ParallelRunner.shared().withMaxParallelism(threads).withMinGrain(1));
+            if (reducer.sum(a) != sum || !reducer.dotExact(a, b).equals(dot) || !dotMatches(reducer, a, b, dot)
+                    || reducer.min(a) != min || reducer.max(a) != max) {
+                throw new IllegalStateException("Невірна згортка при threads=" + threads);
+            }
+            reducer.exclusiveScan(a, scan);
+            if (scan[0] != 0 || scan[a.length - 1] + a[a.length - 1] != sum) {
+                throw new IllegalStateException("Невірний exclusive scan при threads=" + threads);
+            }
+            reducer.inclusiveScan(a, scan);
+            long running = 0;
+            for (int i = 0; i < a.length; i++) {
+                running += a[i];
+                if (scan[i] != running) {
+                    throw new IllegalStateException("Невірний inclusive scan при threads=" + threads + ", i=" + i);
+                }
+            }
+        }
+    }
+
+    // dot: або точне значення, або ArithmeticException, якщо воно не вміщається в long
+    private static boolean dotMatches(ParallelReducer reducer, int[] a, int[] b, BigInteger expected) {
+        try {
+            return reducer.dot(a, b) == expected.longValueExact();
+        } catch (ArithmeticException e) {
+            return expected.bitLength() > 63;
+        }
+    }
+
+    // Крайні випадки: 2 * (-2^31)^2 = 2^63 — вже не long; у третьому масиві проміжна сума
+    // виходить за long, а результат 2^62 + 2^31 — ні
+    private static void checkDotEdges() {
+        int min = Integer.MIN_VALUE;
+        int[][][] cases = {
+                {{min, min}, {min, min}},
+                {{min, min, min}, {min, min, Integer.MAX_VALUE}},
+                {{Integer.MAX_VALUE, min, 7}, {Integer.MAX_VALUE, Integer.MAX_VALUE, -3}},
+        };
+        ParallelReducer reducer = new ParallelReducer(
+                ParallelRunner.shared().withMaxParallelism(2).withMinGrain(1));
+        for (int[][] c : cases) {
+            BigInteger expected = BigInteger.ZERO;
+            for (int i = 0; i < c[0].length; i++) {
+                expected = expected.add(BigInteger.valueOf(c[0][i]).multiply(BigInteger.valueOf(c[1][i])));
+            }
+            if (!reducer.dotExact(c[0], c[1]).equals(expected) || !dotMatches(reducer, c[0], c[1], expected)) {
+                throw new IllegalStateException("Невірний скалярний добуток для " + expected);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Скалярне проти векторного ядра MultiplyKernel: елементів/с на одне ядро (1 потік)
+// і на ядро при N потоках (кожен потік множить свій шматок, як ArrayChunkWriteTask).
+// Масив невеликий (за замовчуванням 64K int = 256 KB), щоб міряти обчислення, а не пам'ять.
+//
+// Run: javac *.java && javac --add-modules jdk.incubator.vector -d . simd/VectorMultiplyKernel.java
+//      java --add-modules jdk.incubator.vector VectorKernelBenchmark [length=65536] [threads=cores] [seconds=2]
+public class VectorKernelBenchmark {
+
+    static volatile int sink;
+
+    public static void main(String[] args) throws InterruptedException {
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 65_536;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        double seconds = args.length > 2 ? Double.parseDouble(args[2]) : 2;
+
+        List<MultiplyKernel> kernels = new ArrayList<>();
+        kernels.add(MultiplyKernel.SCALAR);
+        MultiplyKernel vector = MultiplyKernel.loadVector();
+        if (vector != null) {
+            kernels.add(vector);
+        } else {
+            System.out.println("Векторне ядро недоступне — лише скаляр (див. Run: у заголовку)");
+        }
+
+        System.out.printf("length=%,d, threads=%d, %.1f s per run%n%n", length, threads, seconds);
+        System.out.printf("%-18s %8s %22s%n", "Kernel", "threads", "M elements/s per core");
+        for (MultiplyKernel kernel : kernels) {
+            check(kernel, length);
+            measure(kernel, length, 1, seconds); // прогрів
+            for (int t : threads == 1 ? new int[]{1} : new int[]{1, threads}) {
+                double perCore = measure(kernel, length, t, seconds) / t;
+                System.out.printf("%-18s %8d %22.0f%n", kernel, t, perCore / 1e6);
+            }
+        }
+    }
+
+    // Сумарна кількість елементів/с для t потоків
+    private static double measure(MultiplyKernel kernel, int length, int t, double seconds)
+            throws InterruptedException {
+        long[] processed = new long[t];
+        long durationNanos = (long) (seconds * 1e9);
+        Thread[] workers = new Thread[t];
+        for (int w = 0; w < t; w++) {
+            int id = w;
+            workers[w] = new Thread(() -> {
+                int[] src = new int[length];
+                int[] dst = new int[length];
+                Arrays.setAll(src, i -> i);
+                long count = 0;
+                long end = System.nanoTime() + durationNanos;
+                while (System.nanoTime() < end) {
+                    for (int k = 0; k < 16; k++) {
+                        kernel.multiply(src, 0, dst, 0, length, 3);
+                    }
+                    count += 16L * length;
+                }
+                processed[id] = count;
+                sink = dst[length - 1]; // щоб JIT не викинув записи в dst
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread w : workers) w.start();
+        for (Thread w : workers) w.join();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        return Arrays.stream(processed).sum() / elapsed;
+    }
+
+    // Непарні зсуви і довжини — перевірка хвоста
+    private static void check(MultiplyKernel kernel, int length) {
+        int[] src = new int[length];
+        Arrays.setAll(src, i -> i - length / 2);
+        for (int from : new int[]{0, 1, 7}) {
+            for (int len : new int[]{0, 1, 15, 33, length - from}) {
+                int[] dst = new int[length];
+                kernel.multiply(src, from, dst, 3 % (length - len + 1), len, -7);
+                int off = 3 % (length - len + 1);
+                for (int i = 0; i < len; i++) {
+                    if (dst[off + i] != src[from + i] * -7) {
+                        throw new IllegalStateException(kernel + ": wrong result at " + i);
+                    }
+                }
+            }
+        }
+    }
+}
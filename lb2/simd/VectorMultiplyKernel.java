@@ -0,0 +1,29 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorSpecies;
+
+// Множення через Vector API: SPECIES_PREFERRED — найширший регістр на цій машині
+// (8 int на AVX2, 16 на AVX-512). Хвіст, що не заповнює цілий вектор, — скалярно.
+// Завантажується рефлексією з MultiplyKernel.loadVector().
+class VectorMultiplyKernel implements MultiplyKernel {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public void multiply(int[] src, int srcFrom, int[] dst, int dstFrom, int length, int factor) {
+        int i = 0;
+        int upper = SPECIES.loopBound(length);
+        for (; i < upper; i += SPECIES.length()) {
+            IntVector.fromArray(SPECIES, src, srcFrom + i)
+                    .mul(factor)
+                    .intoArray(dst, dstFrom + i);
+        }
+        for (; i < length; i++) {
+            dst[dstFrom + i] = src[srcFrom + i] * factor;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "vector(" + SPECIES.length() + " x int)";
+    }
+}
@@ -0,0 +1,275 @@
+package lb3;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// ====== Гістограма розширень: кількість файлів і сумарний розмір на кожне розширення ======
+// Розширення — частина імені від останньої крапки, за правилами SuffixMatcher:
+// нижній регістр лише для ASCII, ".bashrc" — розширення ".bashrc"; файли без крапки — під ключем "".
+// Тож count(ext) == countFiles(root, ext) для будь-якого розширення без внутрішніх крапок
+// (".tar.gz" гістограма бачить як ".gz").
+//
+// Таблиця з відкритою адресацією: хеш і порівняння рахуються прямо по символах імені,
+// тож add не створює підрядка на кожен файл — рядок-ключ з'являється лише для нового розширення.
+// Не потокобезпечна: кожен потік обходу пише у свою гістограму.
+final class ExtensionHistogram {
+
+    private String[] keys = new String[16];
+    private long[] files = new long[16];
+    private long[] bytes = new long[16];
+    private int size;
+
+    // name — ім'я файлу або повний шлях: розширення шукаємо з кінця до крапки або роздільника
+    void add(CharSequence name, long fileSize) {
+        int end = name.length();
+        int dot = end - 1;
+        while (dot >= 0) {
+            char c = name.charAt(dot);
+            if (c == '.') {
+                break;
+            }
+            if (c == '/' || c == File.separatorChar) {
+                dot = -1;
+                break;
+            }
+            dot--;
+        }
+        int from = dot < 0 ? end : dot;
+        int i = slot(name, from, end);
+        if (keys[i] == null) {
+            insert(i, SuffixMatcher.toLowerAscii(name.subSequence(from, end).toString()), 1, fileSize);
+        } else {
+            files[i]++;
+            bytes[i] += fileSize;
+        }
+    }
+
+    // Влити other в цю гістограму (other після цього не використовується)
+    void merge(ExtensionHistogram other) {
+        for (int j = 0; j < other.keys.length; j++) {
+            String k = other.keys[j];
+            if (k == null) {
+                continue;
+            }
+            int i = slot(k, 0, k.length());
+            if (keys[i] == null) {
+                insert(i, k, other.files[j], other.bytes[j]);
+            } else {
+                files[i] += other.files[j];
+                bytes[i] += other.bytes[j];
+            }
+        }
+    }
+
+    public Set<String> extensions() {
+        Set<String> result = new HashSet<>();
+        for (String k : keys) {
+            if (k != null) {
+                result.add(k);
+            }
+        }
+        return result;
+    }
+
+    // extension — як для FileCounter: "pdf", ".pdf" або "*.pdf"
+    public long count(String extension) {
+        String k = key(extension);
+        int i = slot(k, 0, k.length());
+        return keys[i] == null ? 0 : files[i];
+    }
+
+    public long bytes(String extension) {
+        String k = key(extension);
+        int i = slot(k, 0, k.length());
+        return keys[i] == null ? 0 : bytes[i];
+    }
+
+    public long totalFiles() {
+        long total = 0;
+        for (int i = 0; i < keys.length; i++) {
+            total += files[i];
+        }
+        return total;
+    }
+
+    // Таблиця за спаданням кількості файлів
+    public void print(PrintStream out) {
+        List<Integer> rows = new ArrayList<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                rows.add(i);
+            }
+        }
+        rows.sort((a, b) -> Long.compare(files[b], files[a]));
+        out.printf("%-16s %14s %18s%n", "Розширення", "Файлів", "Байт");
+        for (int i : rows) {
+            out.printf("%-16s %,14d %,18d%n", keys[i].isEmpty() ? "(немає)" : keys[i], files[i], bytes[i]);
+        }
+    }
+
+    static String extensionOf(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? "" : SuffixMatcher.toLowerAscii(fileName.substring(dot));
+    }
+
+    private static String key(String extension) {
+        return SuffixMatcher.toLowerAscii(SuffixMatcher.normalizeExtension(extension));
+    }
+
+    // Слот з ключем, що дорівнює name[from, end) у нижньому ASCII-регістрі, або порожній слот для нього
+    private int slot(CharSequence name, int from, int end) {
+        int h = 1;
+        for (int j = from; j < end; j++) {
+            h = 31 * h + SuffixMatcher.toLowerAscii(name.charAt(j));
+        }
+        int mask = keys.length - 1;
+        for (int i = (h ^ (h >>> 16)) & mask; ; i = (i + 1) & mask) {
+            String k = keys[i];
+            if (k == null || sameKey(k, name, from, end)) {
+                return i;
+            }
+        }
+    }
+
+    private static boolean sameKey(String key, CharSequence name, int from, int end) {
+        if (key.length() != end - from) {
+            return false;
+        }
+        for (int j = 0; j < key.length(); j++) {
+            if (key.charAt(j) != SuffixMatcher.toLowerAscii(name.charAt(from + j))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void insert(int i, String k, long fileCount, long byteCount) {
+        keys[i] = k;
+        files[i] = fileCount;
+        bytes[i] = byteCount;
+        if (++size * 2 > keys.length) {
+            String[] oldKeys = keys;
+            long[] oldFiles = files;
+            long[] oldBytes = bytes;
+            keys = new String[oldKeys.length * 2];
+            files = new long[keys.length];
+            bytes = new long[keys.length];
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldKeys[j] != null) {
+                    int to = slot(oldKeys[j], 0, oldKeys[j].length());
+                    keys[to] = oldKeys[j];
+                    files[to] = oldFiles[j];
+                    bytes[to] = oldBytes[j];
+                }
+            }
+        }
+    }
+}
+
+// ====== Один паралельний обхід дерева — гістограма всіх розширень ======
+// Одна гістограма на кожен потік пулу, що брав участь в обході: задача бере гістограму
+// свого потоку і дописує в неї файли директорії; в кінці їх зливаємо в одну.
+// Спільної «гарячої» мапи між потоками немає, а мап на директорію — теж.
+// Гістограми потоків тримає сам обхід (мапа за Thread), а не ThreadLocal: пул спільний
+// і живе довше за обхід, тож ThreadLocal лишав би гістограми у потоках пулу.
+// Обхід, обробка посилань і пул — як у NioFileCounter (розмір береться з тих самих атрибутів).
+class ExtensionHistogramScanner {
+
+    private final ForkJoinPool pool;
+
+    public ExtensionHistogramScanner() {
+        this(ForkJoinFileCounter.defaultPool());
+    }
+
+    // pool належить тому, хто його передав
+    public ExtensionHistogramScanner(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool не може бути null");
+        }
+        this.pool = pool;
+    }
+
+    // Стан одного обходу: гістограма на кожен потік
+    private static final class Scan {
+        final Map<Thread, ExtensionHistogram> perThread = new ConcurrentHashMap<>();
+
+        // Задача від початку до кінця виконується одним потоком, а задачі, які він
+        // підхоплює під час join, — послідовно з нею, тож гістограма потоку без синхронізації
+        ExtensionHistogram local() {
+            return perThread.computeIfAbsent(Thread.currentThread(), t -> new ExtensionHistogram());
+        }
+    }
+
+    private static class HistogramTask extends RecursiveAction {
+        private final Scan scan;
+        private final Path directory;
+
+        public HistogramTask(Scan scan, Path directory) {
+            this.scan = scan;
+            this.directory = directory;
+        }
+
+        @Override
+        protected void compute() {
+            ExtensionHistogram histogram = scan.local();
+            List<HistogramTask> subTasks = new ArrayList<>();
+
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    BasicFileAttributes attrs;
+                    try {
+                        attrs = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                        if (attrs.isSymbolicLink()) {
+                            attrs = Files.readAttributes(entry, BasicFileAttributes.class);
+                            if (!attrs.isRegularFile()) continue; // посилання на директорію не обходимо
+                        }
+                    } catch (IOException e) {
+                        continue;
+                    }
+
+                    if (attrs.isDirectory()) {
+                        HistogramTask task = new HistogramTask(scan, entry);
+                        task.fork();
+                        subTasks.add(task);
+                    } else if (attrs.isRegularFile()) {
+                        histogram.add(entry.toString(), attrs.size()); // рядок шляху Path кешує
+                    }
+                }
+            } catch (IOException | DirectoryIteratorException e) {
+                // Нема доступу — як listFiles() == null
+            }
+
+            for (HistogramTask task : subTasks) {
+                task.join();
+            }
+        }
+    }
+
+    public ExtensionHistogram histogram(File rootDir) {
+        if (rootDir == null || !rootDir.isDirectory()) {
+            throw new IllegalArgumentException("Початковий шлях має бути директорією.");
+        }
+        Scan scan = new Scan();
+        pool.invoke(new HistogramTask(scan, rootDir.toPath()));
+        // invoke повертається після join усіх задач — записи потоків уже видно
+        ExtensionHistogram result = new ExtensionHistogram();
+        for (ExtensionHistogram part : scan.perThread.values()) {
+            result.merge(part);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,122 @@
+package lb3;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// ====== Бенчмарк реалізацій FileCounter на згенерованому дереві ======
+// Дерево: files файлів по filesPerDir у директорії, fanout піддиректорій (SyntheticTree).
+// Для кожного лічильника — середній час reps прогонів (перший — прогрів, кеш сторінок теплий).
+//
+// Syscall-и: якщо в PATH є strace, кожен лічильник ще раз запускається в окремій JVM під
+// strace -f -c, і друкується кількість stat/lstat/statx/newfstatat і getdents64.
+// Без strace — оцінка за будовою дерева: legacy робить isDirectory() на кожен запис і ще
+// isFile() на кожен файл, nio — один readAttributes на запис.
+//
+// Run: java -cp . lb3.FileCounterBenchmark [root=/tmp/lb3-tree] [files=1000000] [filesPerDir=100]
+//        [fanout=10] [ext=pdf] [reps=3]
+public class FileCounterBenchmark {
+
+    static final Map<String, FileCounter> COUNTERS = new LinkedHashMap<>();
+
+    static {
+        COUNTERS.put("legacy", new ForkJoinFileCounter());
+        COUNTERS.put("nio", new NioFileCounter());
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 4 && args[0].equals("child")) {
+            // Один прогін в окремій JVM під strace
+            System.out.println(COUNTERS.get(args[1]).countFiles(new File(args[2]), args[3]));
+            return;
+        }
+        Map<String, String> opts = new LinkedHashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected key=value, got: " + a);
+            opts.put(a.substring(0, eq), a.substring(eq + 1));
+        }
+        Path root = Paths.get(opts.getOrDefault("root", "/tmp/lb3-tree"));
+        long files = Long.parseLong(opts.getOrDefault("files", "1000000"));
+        int filesPerDir = Integer.parseInt(opts.getOrDefault("filesPerDir", "100"));
+        int fanout = Integer.parseInt(opts.getOrDefault("fanout", "10"));
+        String ext = opts.getOrDefault("ext", "pdf");
+        int reps = Integer.parseInt(opts.getOrDefault("reps", "3"));
+
+        long start = System.nanoTime();
+        SyntheticTree.balanced(root, files, filesPerDir, fanout);
+        long dirs = (files + filesPerDir - 1) / filesPerDir;
+        long expected = SyntheticTree.expectedCount(files, filesPerDir, "." + ext);
+        System.out.printf("Дерево %s: %,d файлів, %,d директорій (готово за %.1f с), очікується %,d *.%s%n%n",
+                root, files, dirs, (System.nanoTime() - start) / 1e9, expected, ext);
+
+        boolean strace = hasStrace();
+        System.out.printf("%-8s %12s %12s %16s %14s%n", "Counter", "avg ms", "found",
+                strace ? "stat calls" : "stat (оцінка)", strace ? "getdents64" : "");
+        for (Map.Entry<String, FileCounter> e : COUNTERS.entrySet()) {
+            long total = 0;
+            long found = 0;
+            for (int r = 0; r < reps + 1; r++) {
+                long t = System.nanoTime();
+                found = e.getValue().countFiles(root.toFile(), ext);
+                if (r > 0) total += System.nanoTime() - t;
+            }
+            if (found != expected) {
+                throw new IllegalStateException(e.getKey() + ": знайдено " + found + ", очікувалось " + expected);
+            }
+            String stats;
+            if (strace) {
+                long[] calls = straceCounts(e.getKey(), root, ext);
+                stats = String.format("%,16d %,14d", calls[0], calls[1]);
+            } else {
+                long estimate = e.getKey().equals("legacy") ? dirs + 2 * files : dirs + files;
+                stats = String.format("%,16d %14s", estimate, "");
+            }
+            System.out.printf("%-8s %12.1f %,12d %s%n", e.getKey(), total / 1e6 / reps, found, stats);
+        }
+    }
+
+    private static boolean hasStrace() {
+        try {
+            return new ProcessBuilder("strace", "-V").redirectErrorStream(true).start().waitFor() == 0;
+        } catch (IOException | InterruptedException e) {
+            return false;
+        }
+    }
+
+    // {stat-подібні виклики, getdents64} з підсумкової таблиці strace -c
+    private static long[] straceCounts(String counter, Path root, String ext)
+            throws IOException, InterruptedException {
+        List<String> cmd = new ArrayList<>(List.of("strace", "-f", "-c",
+                "-e", "trace=stat,lstat,fstat,newfstatat,statx,getdents64",
+                System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+                "-cp", System.getProperty("java.class.path"),
+                FileCounterBenchmark.class.getName(), "child", counter, root.toString(), ext));
+        Process process = new ProcessBuilder(cmd).redirectErrorStream(true).start();
+        long stats = 0;
+        long getdents = 0;
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] cols = line.trim().split("\\s+");
+                if (cols.length < 5) continue;
+                String name = cols[cols.length - 1];
+                try {
+                    long calls = Long.parseLong(cols[3]);
+                    if (name.equals("getdents64")) getdents += calls;
+                    else if (name.contains("stat")) stats += calls;
+                } catch (NumberFormatException ignored) {
+                    // заголовок таблиці
+                }
+            }
+        }
+        process.waitFor();
+        return new long[]{stats, getdents};
+    }
+}
@@ -1,5 +1,6 @@
 package lb3;
 import java.io.File;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
@@ -8,22 +9,65 @@ import java.util.concurrent.RecursiveTask;
 
 // ====== Інтерфейс стратегії підрахунку файлів ======
 interface FileCounter {
-    long countFiles(File rootDir, String extension);
+    long countFiles(File rootDir, SuffixMatcher matcher);
+
+    // "pdf", ".pdf" або "*.pdf"
+    default long countFiles(File rootDir, String extension) {
+        return countFiles(rootDir, SuffixMatcher.forExtension(extension));
+    }
 }
 
 // ====== Клас, що реалізує підрахунок через ForkJoin (work stealing) ======
+// Задача не форкає кожну піддиректорію: вона обходить свою чергу директорій сама
+// (спочатку вглиб, тож черга лишається малою) і віддає половину черги новій задачі
+// лише тоді, коли пулу бракує роботи — getSurplusQueuedTaskCount() <= surplusThreshold.
+// Так мільйон дрібних листових директорій не стає мільйоном задач, а глибоке дерево
+// не дає ланцюжка join на кожен рівень.
+//
+// Пул — окремий, не commonPool(): за замовчуванням спільний для всіх лічильників
+// з -Dlb3.parallelism потоками (за замовчуванням кількість ядер), або переданий у конструктор.
 class ForkJoinFileCounter implements FileCounter {
 
+    static final int DEFAULT_SURPLUS_THRESHOLD = Integer.getInteger("lb3.surplus", 3);
+
+    private static final class DefaultPool {
+        static final ForkJoinPool POOL = new ForkJoinPool(
+                Integer.getInteger("lb3.parallelism", Runtime.getRuntime().availableProcessors()));
+    }
+
+    private final ForkJoinPool pool;
+    private final int surplusThreshold;
+
+    // Спільний пул лічильників lb3 (NioFileCounter, гістограма, індекс) — щоб усі поводились однаково
+    static ForkJoinPool defaultPool() {
+        return DefaultPool.POOL;
+    }
+
+    public ForkJoinFileCounter() {
+        this(DefaultPool.POOL, DEFAULT_SURPLUS_THRESHOLD);
+    }
+
+    // pool належить тому, хто його передав; surplusThreshold < 0 — ділитись не частіше, ніж коли черга пулу порожня
+    public ForkJoinFileCounter(ForkJoinPool pool, int surplusThreshold) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool не може бути null");
+        }
+        this.pool = pool;
+        this.surplusThreshold = surplusThreshold;
+    }
+
     /**
-     * Завдання для рекурсивного обходу директорій
+     * Завдання: обійти пачку директорій і все, що під ними
      */
     private static class DirectoryScanTask extends RecursiveTask<Long> {
-        private final File directory;
-        private final String extensionLower;
-
-        public DirectoryScanTask(File directory, String extensionLower) {
-            this.directory = directory;
-            this.extensionLower = extensionLower;
+        private final ArrayDeque<File> pending;
+        private final SuffixMatcher matcher;
+        private final int surplusThreshold;
+
+        public DirectoryScanTask(ArrayDeque<File> directories, SuffixMatcher matcher, int surplusThreshold) {
+            this.pending = directories;
+            this.matcher = matcher;
+            this.surplusThreshold = surplusThreshold;
         }
 
         @Override
@@ -31,23 +75,34 @@ class ForkJoinFileCounter implements FileCounter {
             long count = 0L;
             List<DirectoryScanTask> subTasks = new ArrayList<>();
 
-            File[] files = directory.listFiles();
-            if (files == null) {
-                // Нема доступу або не директорія
-                return 0L;
-            }
+            File directory;
+            while ((directory = pending.pollLast()) != null) {
+                File[] files = directory.listFiles();
+                if (files == null) {
+                    // Нема доступу або не директорія
+                    continue;
+                }
 
-            for (File file : files) {
-                if (file.isDirectory()) {
-                    // Для піддиректорії створюємо підзадачу
-                    DirectoryScanTask task = new DirectoryScanTask(file, extensionLower);
+                for (File file : files) {
+                    if (file.isDirectory()) {
+                        pending.addLast(file); // обійдемо самі, якщо ніхто не забере
+                    } else if (file.isFile()) {
+                        // Суфікс без toLowerCase(): жодного нового рядка на файл
+                        if (matcher.matches(file.getName())) {
+                            count++;
+                        }
+                    }
+                }
+
+                // Пулу бракує задач — віддаємо найстаршу половину черги (ближчі до кореня, більші піддерева)
+                if (pending.size() > 1 && getSurplusQueuedTaskCount() <= surplusThreshold) {
+                    ArrayDeque<File> batch = new ArrayDeque<>();
+                    for (int n = pending.size() / 2; n > 0; n--) {
+                        batch.addLast(pending.pollFirst());
+                    }
+                    DirectoryScanTask task = new DirectoryScanTask(batch, matcher, surplusThreshold);
                     task.fork(); // відправляємо в пул (може бути вкрадений іншим потоком)
                     subTasks.add(task);
-                } else if (file.isFile()) {
-                    String name = file.getName().toLowerCase();
-                    if (name.endsWith(extensionLower)) {
-                        count++;
-                    }
                 }
             }
 
@@ -61,33 +116,14 @@ class ForkJoinFileCounter implements FileCounter {
     }
 
     @Override
-    public long countFiles(File rootDir, String extension) {
+    public long countFiles(File rootDir, SuffixMatcher matcher) {
         if (rootDir == null || !rootDir.isDirectory()) {
             throw new IllegalArgumentException("Початковий шлях має бути директорією.");
         }
 
-        String normalizedExt = normalizeExtension(extension);
-
-        ForkJoinPool pool = ForkJoinPool.commonPool();
-        DirectoryScanTask rootTask = new DirectoryScanTask(rootDir, normalizedExt.toLowerCase());
-        return pool.invoke(rootTask);
-    }
-
-    /**
-     * Нормалізує введене розширення:
-     * "pdf" -> ".pdf"
-     * "*.pdf" -> ".pdf"
-     * ".pdf" -> ".pdf"
-     */
-    private String normalizeExtension(String ext) {
-        ext = ext.trim();
-        if (ext.startsWith("*")) {
-            ext = ext.substring(1); // прибрати *
-        }
-        if (!ext.startsWith(".")) {
-            ext = "." + ext;
-        }
-        return ext;
+        ArrayDeque<File> root = new ArrayDeque<>();
+        root.add(rootDir);
+        return pool.invoke(new DirectoryScanTask(root, matcher, surplusThreshold));
     }
 }
 
@@ -133,7 +169,7 @@ public class FileExtensionCounterForkJoin {
         System.out.print("Введіть шлях до директорії: ");
         String dirPath = scanner.nextLine().trim();
 
-        System.out.print("Введіть розширення файлів (наприклад: pdf, .pdf або *.pdf): ");
+        System.out.print("Введіть розширення файлів (наприклад: pdf, .pdf або *.pdf; * — усі розширення): ");
         String ext = scanner.nextLine().trim();
         scanner.close();
 
@@ -143,6 +179,18 @@ public class FileExtensionCounterForkJoin {
             return;
         }
 
+        if (ext.equals("*")) {
+            // Гістограма всіх розширень за один обхід
+            long start = System.nanoTime();
+            ExtensionHistogram histogram = new ExtensionHistogramScanner().histogram(rootDir);
+            long nanos = System.nanoTime() - start;
+
+            System.out.println("\n=== Гістограма розширень ===");
+            histogram.print(System.out);
+            System.out.printf("Усього файлів: %d, час виконання: %.3f ms%n", histogram.totalFiles(), nanos / 1_000_000.0);
+            return;
+        }
+
         FileCounter counter = new ForkJoinFileCounter();
         FileCounterRunner runner = new FileCounterRunner();
 
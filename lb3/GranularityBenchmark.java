@@ -0,0 +1,123 @@
+package lb3;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// ====== Гранулярність задач ForkJoinFileCounter на різних формах дерева ======
+// Дерева (SyntheticTree, у підкаталогах base): wide — багато дрібних листових директорій,
+// deep — довгий ланцюжок, skewed — одне велике піддерево і багато крихітних директорій.
+//
+// Порівнюються:
+// - per-dir    — попередній алгоритм: окрема задача на кожну піддиректорію, commonPool();
+// - surplus=N  — ForkJoinFileCounter з порогом getSurplusQueuedTaskCount() на окремому пулі.
+// Для кожного — середній час і кількість крадіжок задач у пулі (getStealCount).
+//
+// Run: java -Xss16m -cp . lb3.GranularityBenchmark [base=/tmp/lb3-shapes] [files=1000000] [depth=1000] [reps=3]
+public class GranularityBenchmark {
+
+    // Попередній DirectoryScanTask — як еталон
+    private static class PerDirectoryTask extends RecursiveTask<Long> {
+        private final File directory;
+        private final SuffixMatcher matcher;
+
+        PerDirectoryTask(File directory, SuffixMatcher matcher) {
+            this.directory = directory;
+            this.matcher = matcher;
+        }
+
+        @Override
+        protected Long compute() {
+            long count = 0L;
+            List<PerDirectoryTask> subTasks = new ArrayList<>();
+            File[] files = directory.listFiles();
+            if (files == null) {
+                return 0L;
+            }
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    PerDirectoryTask task = new PerDirectoryTask(file, matcher);
+                    task.fork();
+                    subTasks.add(task);
+                } else if (file.isFile() && matcher.matches(file.getName())) {
+                    count++;
+                }
+            }
+            for (PerDirectoryTask task : subTasks) {
+                count += task.join();
+            }
+            return count;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String base = "/tmp/lb3-shapes";
+        long files = 1_000_000;
+        int depth = 1000;
+        int reps = 3;
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected key=value, got: " + a);
+            String value = a.substring(eq + 1);
+            switch (a.substring(0, eq)) {
+                case "base": base = value; break;
+                case "files": files = Long.parseLong(value); break;
+                case "depth": depth = Integer.parseInt(value); break;
+                case "reps": reps = Integer.parseInt(value); break;
+                default: throw new IllegalArgumentException("Unknown option: " + a);
+            }
+        }
+
+        Path wide = Paths.get(base, "wide");
+        Path deep = Paths.get(base, "deep");
+        Path skewed = Paths.get(base, "skewed");
+        SyntheticTree.wide(wide, (int) (files / 2), 2);
+        SyntheticTree.deep(deep, depth, 20);
+        SyntheticTree.skewed(skewed, files);
+
+        SuffixMatcher matcher = SuffixMatcher.forExtension("pdf");
+        ForkJoinPool dedicated = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        int[] thresholds = {0, 3, 16};
+
+        System.out.printf("%-8s %-12s %12s %12s %12s%n", "Tree", "Counter", "avg ms", "found", "steals");
+        for (Path tree : new Path[]{wide, deep, skewed}) {
+            File root = tree.toFile();
+            ForkJoinPool common = ForkJoinPool.commonPool();
+            long expected = run(tree, "per-dir", reps, common, () -> common.invoke(new PerDirectoryTask(root, matcher)), -1);
+            for (int threshold : thresholds) {
+                FileCounter counter = new ForkJoinFileCounter(dedicated, threshold);
+                run(tree, "surplus=" + threshold, reps, dedicated, () -> counter.countFiles(root, matcher), expected);
+            }
+        }
+        dedicated.shutdown();
+    }
+
+    private interface Count {
+        long run();
+    }
+
+    private static long run(Path tree, String name, int reps, ForkJoinPool pool, Count count, long expected) {
+        long total = 0;
+        long found = 0;
+        long steals = 0;
+        for (int r = 0; r < reps + 1; r++) { // перший прогін — прогрів
+            long stealsBefore = pool.getStealCount();
+            long start = System.nanoTime();
+            found = count.run();
+            if (r > 0) {
+                total += System.nanoTime() - start;
+                steals += pool.getStealCount() - stealsBefore;
+            }
+        }
+        if (expected >= 0 && found != expected) {
+            throw new IllegalStateException(name + " на " + tree + ": знайдено " + found + ", очікувалось " + expected);
+        }
+        System.out.printf("%-8s %-12s %12.1f %,12d %,12d%n",
+                tree.getFileName(), name, total / 1e6 / reps, found, steals / reps);
+        return found;
+    }
+}
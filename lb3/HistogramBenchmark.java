@@ -0,0 +1,82 @@
+package lb3;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+// ====== Один обхід з гістограмою проти окремого обходу на кожне розширення ======
+// Дерево — SyntheticTree.balanced; розширення — усі з SyntheticTree.EXTENSIONS.
+// Кількості з гістограми звіряються з NioFileCounter по кожному розширенню.
+//
+// Run: java -cp . lb3.HistogramBenchmark [root=/tmp/lb3-tree] [files=1000000] [filesPerDir=100] [reps=3]
+public class HistogramBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        String root = "/tmp/lb3-tree";
+        long files = 1_000_000;
+        int filesPerDir = 100;
+        int reps = 3;
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected key=value, got: " + a);
+            String value = a.substring(eq + 1);
+            switch (a.substring(0, eq)) {
+                case "root": root = value; break;
+                case "files": files = Long.parseLong(value); break;
+                case "filesPerDir": filesPerDir = Integer.parseInt(value); break;
+                case "reps": reps = Integer.parseInt(value); break;
+                default: throw new IllegalArgumentException("Unknown option: " + a);
+            }
+        }
+        Path rootPath = Paths.get(root);
+        SyntheticTree.balanced(rootPath, files, filesPerDir, 10);
+        File rootDir = rootPath.toFile();
+
+        // Унікальні розширення у формі, в якій їх повертає гістограма
+        String[] extensions = SyntheticTree.EXTENSIONS.clone();
+        for (int i = 0; i < extensions.length; i++) {
+            extensions[i] = ExtensionHistogram.extensionOf("f" + extensions[i]);
+        }
+        extensions = Arrays.stream(extensions).distinct().toArray(String[]::new);
+
+        FileCounter counter = new NioFileCounter();
+        ExtensionHistogramScanner scanner = new ExtensionHistogramScanner();
+        long perExtension = 0;
+        long histogramNanos = 0;
+        ExtensionHistogram histogram = null;
+        for (int r = 0; r < reps + 1; r++) { // перший прогін — прогрів
+            long start = System.nanoTime();
+            long[] counts = new long[extensions.length];
+            for (int i = 0; i < extensions.length; i++) {
+                counts[i] = counter.countFiles(rootDir, extensions[i]);
+            }
+            long mid = System.nanoTime();
+            histogram = scanner.histogram(rootDir);
+            long end = System.nanoTime();
+            if (r > 0) {
+                perExtension += mid - start;
+                histogramNanos += end - mid;
+            }
+            for (int i = 0; i < extensions.length; i++) {
+                if (histogram.count(extensions[i]) != counts[i]) {
+                    throw new IllegalStateException(extensions[i] + ": гістограма " + histogram.count(extensions[i])
+                            + ", окремий обхід " + counts[i]);
+                }
+            }
+        }
+
+        // Кожен ключ гістограми (зокрема ".synthetic-tree" маркера) — те саме, що окремий обхід
+        for (String ext : histogram.extensions()) {
+            if (!ext.isEmpty() && histogram.count(ext) != counter.countFiles(rootDir, ext)) {
+                throw new IllegalStateException(ext + ": гістограма " + histogram.count(ext)
+                        + ", окремий обхід " + counter.countFiles(rootDir, ext));
+            }
+        }
+
+        System.out.printf("Дерево %s: %,d файлів, %d розширень%n%n", root, histogram.totalFiles(), extensions.length);
+        histogram.print(System.out);
+        System.out.printf("%n%-28s %10.1f ms%n", extensions.length + " обходів (NioFileCounter)", perExtension / 1e6 / reps);
+        System.out.printf("%-28s %10.1f ms%n", "1 обхід (гістограма)", histogramNanos / 1e6 / reps);
+    }
+}
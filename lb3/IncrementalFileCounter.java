@@ -0,0 +1,473 @@
+package lb3;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// ====== Інкрементальний підрахунок з індексом на диску ======
+// Для кожної директорії індекс пам'ятає її mtime, імена піддиректорій і кількість файлів
+// за «хвостом» імені від першої крапки ("a.tar.gz" -> ".tar.gz", "x.pdf" -> ".pdf").
+// mtime директорії змінюється, коли в ній створюють, видаляють або перейменовують записи,
+// тож повторний обхід робить один stat на директорію, а перелічує (readdir + stat на запис)
+// лише ті, чий mtime змінився. Зміна вмісту файлу кількостей не змінює.
+//
+// Запит з будь-яким суфіксом, що починається з крапки, відповідається з цих лічильників:
+// ім'я закінчується на ".x" тоді й лише тоді, коли на ".x" закінчується його хвіст.
+//
+// Директорія, змінена менше ніж за RACY_WINDOW_MS до переліку, зберігається з mtime = -1
+// і буде перелічена знову: зміна в ту саму «секунду» mtime інакше лишилася б непоміченою.
+//
+// Режим watch(): WatchService на всіх директоріях, змінена директорія перелічується одразу,
+// і countFiles повертає кількість з пам'яті без обходу. OVERFLOW — повертаємось до обходу.
+class IncrementalFileCounter implements FileCounter, Closeable {
+
+    private static final int MAGIC = 0x4C423349; // "LB3I"
+    private static final int VERSION = 1;
+    static final long RACY_WINDOW_MS = 2_000;
+
+    // Знімок однієї директорії; незмінний — замінюється цілком
+    static final class DirEntry {
+        final long mtime;        // мс; -1 — не довіряти, перелічити наступного разу
+        final String[] subdirs;
+        final String[] tails;    // частина імені від першої крапки ("" — без крапки)
+        final long[] counts;
+
+        DirEntry(long mtime, String[] subdirs, String[] tails, long[] counts) {
+            this.mtime = mtime;
+            this.subdirs = subdirs;
+            this.tails = tails;
+            this.counts = counts;
+        }
+    }
+
+    // Підсумок останнього обходу
+    static final class ScanStats {
+        final long directories;
+        final long relisted;
+        final long nanos;
+
+        ScanStats(long directories, long relisted, long nanos) {
+            this.directories = directories;
+            this.relisted = relisted;
+            this.nanos = nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("директорій %,d, перелічено %,d, %.1f ms", directories, relisted, nanos / 1e6);
+        }
+    }
+
+    private final Path indexFile;
+    private final ForkJoinPool pool;
+    private final int surplusThreshold;
+    private final Map<String, DirEntry> index = new ConcurrentHashMap<>(); // ключ — шлях відносно кореня
+    private Path root;
+    private ScanStats lastScan;
+
+    private volatile WatchService watcher;
+    private final Map<WatchKey, String> watchKeys = new ConcurrentHashMap<>();
+    private final Set<String> watched = ConcurrentHashMap.newKeySet();
+    private volatile boolean overflow;
+
+    public IncrementalFileCounter(Path indexFile) {
+        this(indexFile, ForkJoinFileCounter.defaultPool(), ForkJoinFileCounter.DEFAULT_SURPLUS_THRESHOLD);
+    }
+
+    // pool належить тому, хто його передав; surplusThreshold — як у ForkJoinFileCounter
+    public IncrementalFileCounter(Path indexFile, ForkJoinPool pool, int surplusThreshold) {
+        if (indexFile == null || pool == null) {
+            throw new IllegalArgumentException("indexFile і pool не можуть бути null");
+        }
+        this.indexFile = indexFile;
+        this.pool = pool;
+        this.surplusThreshold = surplusThreshold;
+    }
+
+    @Override
+    public long countFiles(File rootDir, SuffixMatcher matcher) {
+        try {
+            refresh(rootDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long total = 0;
+        for (DirEntry entry : index.values()) {
+            for (int i = 0; i < entry.tails.length; i++) {
+                if (matcher.matches(entry.tails[i])) {
+                    total += entry.counts[i];
+                }
+            }
+        }
+        return total;
+    }
+
+    ScanStats lastScan() {
+        return lastScan;
+    }
+
+    // Оновити індекс під rootDir і зберегти його; у режимі watch без OVERFLOW — нічого не робить
+    synchronized ScanStats refresh(File rootDir) throws IOException {
+        open(rootDir);
+        if (watcher != null && !overflow) {
+            lastScan = new ScanStats(index.size(), 0, 0);
+            return lastScan;
+        }
+        return scan();
+    }
+
+    // Перейти до кореня rootDir: інший корінь — індекс з нуля (або з файлу)
+    private void open(File rootDir) {
+        if (rootDir == null || !rootDir.isDirectory()) {
+            throw new IllegalArgumentException("Початковий шлях має бути директорією.");
+        }
+        Path requested = rootDir.toPath().toAbsolutePath().normalize();
+        if (!requested.equals(root)) {
+            if (watcher != null) {
+                throw new IllegalStateException("Уже стежимо за " + root);
+            }
+            root = requested;
+            index.clear();
+            load();
+        }
+    }
+
+    // Інкрементальний обхід усього дерева; у режимі watch кожна директорія реєструється
+    // у WatchService до того, як її прочитано, тож жодна зміна після переліку не губиться
+    private ScanStats scan() throws IOException {
+        long start = System.nanoTime();
+        overflow = false;
+        ArrayDeque<String> top = new ArrayDeque<>();
+        top.add("");
+        long relisted = pool.invoke(new ScanTask(top));
+        save();
+        lastScan = new ScanStats(index.size(), relisted, System.nanoTime() - start);
+        return lastScan;
+    }
+
+    // ====== Обхід: stat кожної директорії, перелік лише змінених ======
+    // Той самий розподіл роботи, що й у ForkJoinFileCounter (черга + getSurplusQueuedTaskCount)
+    private final class ScanTask extends RecursiveTask<Long> {
+        private final ArrayDeque<String> pending;
+
+        ScanTask(ArrayDeque<String> pending) {
+            this.pending = pending;
+        }
+
+        @Override
+        protected Long compute() {
+            long relisted = 0;
+            List<ScanTask> subTasks = new ArrayList<>();
+
+            String rel;
+            while ((rel = pending.pollLast()) != null) {
+                if (watcher != null) {
+                    register(rel); // до stat і переліку: будь-яка пізніша зміна дасть подію
+                }
+                DirEntry entry = index.get(rel);
+                long mtime;
+                try {
+                    BasicFileAttributes attrs = Files.readAttributes(resolve(rel), BasicFileAttributes.class,
+                            LinkOption.NOFOLLOW_LINKS);
+                    if (!attrs.isDirectory()) {
+                        removeSubtree(rel);
+                        continue;
+                    }
+                    mtime = attrs.lastModifiedTime().toMillis();
+                } catch (IOException e) {
+                    removeSubtree(rel); // директорію видалили
+                    continue;
+                }
+
+                if (entry == null || entry.mtime != mtime) {
+                    entry = relist(rel, mtime);
+                    relisted++;
+                }
+                for (String name : entry.subdirs) {
+                    pending.addLast(child(rel, name));
+                }
+
+                if (pending.size() > 1 && getSurplusQueuedTaskCount() <= surplusThreshold) {
+                    ArrayDeque<String> batch = new ArrayDeque<>();
+                    for (int n = pending.size() / 2; n > 0; n--) {
+                        batch.addLast(pending.pollFirst());
+                    }
+                    ScanTask task = new ScanTask(batch);
+                    task.fork();
+                    subTasks.add(task);
+                }
+            }
+
+            for (ScanTask task : subTasks) {
+                relisted += task.join();
+            }
+            return relisted;
+        }
+    }
+
+    // Перелічити одну директорію, замінити її запис і прибрати піддерева зниклих піддиректорій
+    private DirEntry relist(String rel, long mtime) {
+        long listedAt = System.currentTimeMillis();
+        List<String> subdirs = new ArrayList<>();
+        Map<String, long[]> counts = new HashMap<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(resolve(rel))) {
+            for (Path entry : entries) {
+                BasicFileAttributes attrs;
+                try {
+                    attrs = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    if (attrs.isSymbolicLink()) {
+                        attrs = Files.readAttributes(entry, BasicFileAttributes.class);
+                        if (!attrs.isRegularFile()) continue; // посилання на директорію не обходимо
+                    }
+                } catch (IOException e) {
+                    continue;
+                }
+                String name = entry.getFileName().toString();
+                if (attrs.isDirectory()) {
+                    subdirs.add(name);
+                } else if (attrs.isRegularFile()) {
+                    int dot = name.indexOf('.');
+                    counts.computeIfAbsent(dot < 0 ? "" : name.substring(dot), k -> new long[1])[0]++;
+                }
+            }
+        } catch (IOException | DirectoryIteratorException e) {
+            // Нема доступу — запис без файлів і піддиректорій
+        }
+
+        String[] tails = counts.keySet().toArray(new String[0]);
+        long[] values = new long[tails.length];
+        for (int i = 0; i < tails.length; i++) {
+            values[i] = counts.get(tails[i])[0];
+        }
+        long stored = mtime >= listedAt - RACY_WINDOW_MS ? -1 : mtime;
+        DirEntry fresh = new DirEntry(stored, subdirs.toArray(new String[0]), tails, values);
+
+        DirEntry old = index.put(rel, fresh);
+        if (old != null) {
+            Set<String> kept = new HashSet<>(subdirs);
+            for (String name : old.subdirs) {
+                if (!kept.contains(name)) {
+                    removeSubtree(child(rel, name));
+                }
+            }
+        }
+        return fresh;
+    }
+
+    // Явний стек замість рекурсії: глибина дерева не обмежена стеком потоку
+    private void removeSubtree(String rel) {
+        ArrayDeque<String> stack = new ArrayDeque<>();
+        stack.push(rel);
+        while (!stack.isEmpty()) {
+            String dir = stack.pop();
+            DirEntry entry = index.remove(dir);
+            watched.remove(dir);
+            if (entry != null) {
+                for (String name : entry.subdirs) {
+                    stack.push(child(dir, name));
+                }
+            }
+        }
+    }
+
+    private Path resolve(String rel) {
+        return rel.isEmpty() ? root : root.resolve(rel);
+    }
+
+    private static String child(String rel, String name) {
+        return rel.isEmpty() ? name : rel + File.separator + name;
+    }
+
+    // ====== Файл індексу ======
+    // MAGIC, VERSION, корінь, кількість записів; запис: шлях, mtime, піддиректорії, хвости з кількостями
+
+    // Порожній, обірваний або пошкоджений файл — не помилка: індекс з нуля, повний обхід
+    private void load() {
+        if (!Files.isRegularFile(indexFile)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !in.readUTF().equals(root.toString())) {
+                return; // інший формат або інший корінь — почнемо з нуля
+            }
+            int size = readLength(in);
+            for (int e = 0; e < size; e++) {
+                String rel = in.readUTF();
+                long mtime = in.readLong();
+                String[] subdirs = new String[readLength(in)];
+                for (int i = 0; i < subdirs.length; i++) {
+                    subdirs[i] = in.readUTF();
+                }
+                String[] tails = new String[readLength(in)];
+                long[] counts = new long[tails.length];
+                for (int i = 0; i < tails.length; i++) {
+                    tails[i] = in.readUTF();
+                    counts[i] = in.readLong();
+                }
+                index.put(rel, new DirEntry(mtime, subdirs, tails, counts));
+            }
+        } catch (IOException e) {
+            index.clear(); // половина записів гірша за жоден
+        }
+    }
+
+    private static int readLength(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Пошкоджений індекс: від'ємна довжина " + length);
+        }
+        return length;
+    }
+
+    // Через тимчасовий файл і атомарну заміну — обірваний запис не зіпсує попередній індекс
+    private void save() throws IOException {
+        Path tmp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(root.toString());
+            Map<String, DirEntry> snapshot = new HashMap<>(index);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, DirEntry> e : snapshot.entrySet()) {
+                DirEntry entry = e.getValue();
+                out.writeUTF(e.getKey());
+                out.writeLong(entry.mtime);
+                out.writeInt(entry.subdirs.length);
+                for (String name : entry.subdirs) {
+                    out.writeUTF(name);
+                }
+                out.writeInt(entry.tails.length);
+                for (int i = 0; i < entry.tails.length; i++) {
+                    out.writeUTF(entry.tails[i]);
+                    out.writeLong(entry.counts[i]);
+                }
+            }
+        }
+        Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // ====== Режим стеження ======
+
+    // Оновити індекс і далі тримати його актуальним через WatchService (потік-демон).
+    // Обхід іде вже з увімкненим watcher: кожна директорія реєструється перед переліком,
+    // тож зміни між обходом і початком стеження не губляться.
+    synchronized void watch(File rootDir) throws IOException {
+        if (watcher != null) {
+            throw new IllegalStateException("Уже стежимо за " + root);
+        }
+        open(rootDir);
+        WatchService service = FileSystems.getDefault().newWatchService();
+        watcher = service;
+        try {
+            scan();
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+        Thread thread = new Thread(() -> watchLoop(service), "lb3-index-watch");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void watchLoop(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                String rel = watchKeys.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        overflow = true; // наступний countFiles зробить повний інкрементальний обхід
+                    }
+                }
+                if (rel != null) {
+                    onChanged(rel);
+                }
+                if (!key.reset()) {
+                    watchKeys.remove(key); // директорію видалили
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // close()
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Змінена директорія: перелічити лише її, нові піддиректорії — обійти (ScanTask сам їх реєструє)
+    private synchronized void onChanged(String rel) {
+        if (watcher == null || !index.containsKey(rel)) {
+            return;
+        }
+        long mtime;
+        try {
+            mtime = Files.getLastModifiedTime(resolve(rel), LinkOption.NOFOLLOW_LINKS).toMillis();
+        } catch (IOException e) {
+            removeSubtree(rel);
+            return;
+        }
+        DirEntry entry = relist(rel, mtime);
+        ArrayDeque<String> fresh = new ArrayDeque<>();
+        for (String name : entry.subdirs) {
+            String sub = child(rel, name);
+            if (!index.containsKey(sub)) {
+                fresh.add(sub);
+            }
+        }
+        if (!fresh.isEmpty()) {
+            pool.invoke(new ScanTask(fresh));
+        }
+    }
+
+    private void register(String rel) {
+        if (watched.add(rel)) {
+            try {
+                WatchKey key = resolve(rel).register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                watchKeys.put(key, rel);
+            } catch (IOException e) {
+                watched.remove(rel); // директорія вже зникла — її прибере stat в ScanTask
+            }
+        }
+    }
+
+    // Зупинити стеження і зберегти індекс
+    @Override
+    public synchronized void close() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+            watchKeys.clear();
+            watched.clear();
+        }
+        if (root != null) {
+            save();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package lb3;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// ====== Повторні обходи з індексом IncrementalFileCounter ======
+// На збалансованому дереві (SyntheticTree) порівнюються:
+// - full     — ForkJoinFileCounter, повний перелік кожного разу;
+// - cold     — перший обхід з порожнім індексом (перелік усього + запис індексу);
+// - warm     — новий лічильник, індекс читається з диска, дерево не змінилось;
+// - changed  — у changes директорій додано по файлу .pdf;
+// - watch    — режим WatchService: countFiles без обходу і затримка, з якою з'являється новий файл;
+// - burst    — під час стеження створюються burstDirs директорій, у кожну одразу після mkdir
+//              пишуться 5 файлів .pdf; кількість має зійтися (файли, створені між переліком
+//              нової директорії і її реєстрацією, не повинні губитися).
+// Для кожного — час і скільки директорій довелося перелічити. Додані файли потім видаляються.
+//
+// Run: java -cp . lb3.IncrementalIndexBenchmark [root=/tmp/lb3-tree] [files=1000000] [filesPerDir=100]
+//        [fanout=10] [index=/tmp/lb3-index.bin] [changes=100] [burstDirs=200]
+public class IncrementalIndexBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String rootArg = "/tmp/lb3-tree";
+        long files = 1_000_000;
+        int filesPerDir = 100;
+        int fanout = 10;
+        String indexArg = "/tmp/lb3-index.bin";
+        int changes = 100;
+        int burstDirs = 200;
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected key=value, got: " + a);
+            String value = a.substring(eq + 1);
+            switch (a.substring(0, eq)) {
+                case "root": rootArg = value; break;
+                case "files": files = Long.parseLong(value); break;
+                case "filesPerDir": filesPerDir = Integer.parseInt(value); break;
+                case "fanout": fanout = Integer.parseInt(value); break;
+                case "index": indexArg = value; break;
+                case "changes": changes = Integer.parseInt(value); break;
+                case "burstDirs": burstDirs = Integer.parseInt(value); break;
+                default: throw new IllegalArgumentException("Unknown option: " + a);
+            }
+        }
+
+        Path root = Paths.get(rootArg);
+        Path indexFile = Paths.get(indexArg);
+        SyntheticTree.balanced(root, files, filesPerDir, fanout);
+        // Щойно змінені директорії індекс не кешує (RACY_WINDOW_MS) — даємо дереву «охолонути»
+        Thread.sleep(IncrementalFileCounter.RACY_WINDOW_MS);
+
+        File rootDir = root.toFile();
+        SuffixMatcher matcher = SuffixMatcher.forExtension("pdf");
+        long expected = SyntheticTree.expectedCount(files, filesPerDir, ".pdf");
+
+        System.out.printf("%-8s %12s %12s %14s%n", "Mode", "ms", "found", "relisted dirs");
+        long start = System.nanoTime();
+        long found = new ForkJoinFileCounter().countFiles(rootDir, matcher);
+        report("full", System.nanoTime() - start, found, -1, expected);
+
+        Files.deleteIfExists(indexFile);
+        try (IncrementalFileCounter cold = new IncrementalFileCounter(indexFile)) {
+            found = cold.countFiles(rootDir, matcher);
+            report("cold", cold.lastScan().nanos, found, cold.lastScan().relisted, expected);
+        }
+        System.out.printf("Індекс: %,d байт%n", Files.size(indexFile));
+
+        List<Path> added = new ArrayList<>();
+        try (IncrementalFileCounter warm = new IncrementalFileCounter(indexFile)) {
+            found = warm.countFiles(rootDir, matcher);
+            report("warm", warm.lastScan().nanos, found, warm.lastScan().relisted, expected);
+
+            List<Path> dirs;
+            try (Stream<Path> walk = Files.walk(root)) {
+                dirs = walk.filter(Files::isDirectory).limit(changes).collect(Collectors.toList());
+            }
+            for (Path dir : dirs) {
+                added.add(Files.createFile(dir.resolve("added.pdf")));
+            }
+            found = warm.countFiles(rootDir, matcher);
+            report("changed", warm.lastScan().nanos, found, warm.lastScan().relisted, expected + added.size());
+
+            warm.watch(rootDir);
+            start = System.nanoTime();
+            found = warm.countFiles(rootDir, matcher);
+            report("watch", System.nanoTime() - start, found, 0, expected + added.size());
+
+            Path extra = Files.createFile(root.resolve("watched.pdf"));
+            added.add(extra);
+            start = System.nanoTime();
+            found = awaitCount(warm, rootDir, matcher, expected + added.size());
+            report("watch+1", System.nanoTime() - start, found, 0, expected + added.size());
+
+            start = System.nanoTime();
+            Path burst = Files.createDirectory(root.resolve("burst"));
+            added.add(burst);
+            for (int d = 0; d < burstDirs; d++) {
+                Path dir = Files.createDirectory(burst.resolve("b" + d));
+                added.add(dir);
+                for (int f = 0; f < 5; f++) {
+                    added.add(Files.createFile(dir.resolve("f" + f + ".pdf")));
+                }
+            }
+            long expectedBurst = expected + dirs.size() + 1 + 5L * burstDirs;
+            found = awaitCount(warm, rootDir, matcher, expectedBurst);
+            report("burst", System.nanoTime() - start, found, 0, expectedBurst);
+        } finally {
+            // Файли — раніше за директорії, в яких вони лежать
+            for (int i = added.size() - 1; i >= 0; i--) {
+                Files.deleteIfExists(added.get(i));
+            }
+        }
+    }
+
+    // Чекати, поки countFiles у режимі watch поверне expected (не довше 3 с)
+    private static long awaitCount(IncrementalFileCounter counter, File rootDir, SuffixMatcher matcher,
+                                   long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + 3_000_000_000L;
+        long found;
+        while ((found = counter.countFiles(rootDir, matcher)) != expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        return found;
+    }
+
+    private static void report(String mode, long nanos, long found, long relisted, long expected) {
+        if (found != expected) {
+            throw new IllegalStateException(mode + ": знайдено " + found + ", очікувалось " + expected);
+        }
+        System.out.printf("%-8s %12.1f %,12d %14s%n", mode, nanos / 1e6, found,
+                relisted < 0 ? "all" : String.format("%,d", relisted));
+    }
+}
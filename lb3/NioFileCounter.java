@@ -0,0 +1,104 @@
+package lb3;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// ====== Підрахунок через NIO DirectoryStream ======
+// Відмінності від ForkJoinFileCounter:
+// - директорія читається потоком (readdir порціями), без масиву File[] на всю директорію;
+// - тип запису — одним readAttributes(NOFOLLOW_LINKS) замість isDirectory() + isFile(),
+//   тобто один lstat на запис замість двох stat для звичайних файлів.
+//
+// Java не віддає d_type з readdir на Linux/macOS, тож без stat тип не дізнатись.
+// На Windows DirectoryStream сам кешує атрибути із запису каталогу, і readAttributes
+// не робить окремого виклику — там це «тип із запису директорії» без додаткових syscall.
+//
+// Символьні посилання: на файл — рахуються (ще один stat лише для посилань),
+// на директорію — не обходяться, щоб не зациклитись.
+//
+// Пул — як у ForkJoinFileCounter: за замовчуванням його спільний ForkJoinFileCounter.defaultPool().
+class NioFileCounter implements FileCounter {
+
+    private final ForkJoinPool pool;
+
+    public NioFileCounter() {
+        this(ForkJoinFileCounter.defaultPool());
+    }
+
+    // pool належить тому, хто його передав
+    public NioFileCounter(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool не може бути null");
+        }
+        this.pool = pool;
+    }
+
+    private static class DirectoryStreamTask extends RecursiveTask<Long> {
+        private final Path directory;
+        private final SuffixMatcher matcher;
+
+        public DirectoryStreamTask(Path directory, SuffixMatcher matcher) {
+            this.directory = directory;
+            this.matcher = matcher;
+        }
+
+        @Override
+        protected Long compute() {
+            long count = 0L;
+            List<DirectoryStreamTask> subTasks = new ArrayList<>();
+
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    BasicFileAttributes attrs;
+                    try {
+                        attrs = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    } catch (IOException e) {
+                        continue; // запис зник між readdir і stat або немає доступу
+                    }
+
+                    if (attrs.isDirectory()) {
+                        DirectoryStreamTask task = new DirectoryStreamTask(entry, matcher);
+                        task.fork();
+                        subTasks.add(task);
+                    } else if (attrs.isRegularFile()) {
+                        if (matches(entry)) {
+                            count++;
+                        }
+                    } else if (attrs.isSymbolicLink() && matches(entry) && Files.isRegularFile(entry)) {
+                        count++;
+                    }
+                }
+            } catch (IOException | DirectoryIteratorException e) {
+                // Нема доступу або директорія зникла — як listFiles() == null;
+                // вже запущені підзадачі все одно дочікуємось нижче
+            }
+
+            for (DirectoryStreamTask task : subTasks) {
+                count += task.join();
+            }
+            return count;
+        }
+
+        private boolean matches(Path entry) {
+            return matcher.matches(entry.getFileName().toString());
+        }
+    }
+
+    @Override
+    public long countFiles(File rootDir, SuffixMatcher matcher) {
+        if (rootDir == null || !rootDir.isDirectory()) {
+            throw new IllegalArgumentException("Початковий шлях має бути директорією.");
+        }
+
+        return pool.invoke(new DirectoryStreamTask(rootDir.toPath(), matcher));
+    }
+}
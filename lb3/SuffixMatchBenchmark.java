@@ -0,0 +1,100 @@
+package lb3;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+// ====== Алокації при перевірці розширення: до і після SuffixMatcher ======
+// 1) Мікробенчмарк на готових іменах: name.toLowerCase().endsWith(ext) (старий DirectoryScanTask)
+//    проти SuffixMatcher.matches(name) — нс і байт на ім'я (ThreadMXBean, як gc.alloc.rate.norm у JMH).
+// 2) Повний обхід SyntheticTree кожним лічильником — байт на файл по всіх потоках.
+//    Сюди входять і неминучі алокації File/Path та імені з getName(); різниця — саме toLowerCase.
+//
+// Run: java -cp . lb3.SuffixMatchBenchmark [root=/tmp/lb3-tree] [files=1000000] [names=1000000]
+public class SuffixMatchBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    static volatile long sink;
+
+    public static void main(String[] args) throws IOException {
+        String root = "/tmp/lb3-tree";
+        long files = 1_000_000;
+        int names = 1_000_000;
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected key=value, got: " + a);
+            String value = a.substring(eq + 1);
+            switch (a.substring(0, eq)) {
+                case "root": root = value; break;
+                case "files": files = Long.parseLong(value); break;
+                case "names": names = Integer.parseInt(value); break;
+                default: throw new IllegalArgumentException("Unknown option: " + a);
+            }
+        }
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+
+        String[] fileNames = new String[names];
+        for (int i = 0; i < names; i++) {
+            fileNames[i] = "Report_" + i + SyntheticTree.EXTENSIONS[i % SyntheticTree.EXTENSIONS.length];
+        }
+        String ext = ".pdf";
+        SuffixMatcher matcher = SuffixMatcher.of(ext);
+        SuffixMatcher several = SuffixMatcher.of(".pdf", ".txt", ".md", ".tar.gz");
+
+        System.out.printf("%-26s %10s %12s %10s%n", "Перевірка", "нс/ім'я", "байт/ім'я", "збігів");
+        for (int round = 0; round < 2; round++) { // перший раунд — прогрів
+            for (String mode : new String[]{"toLowerCase().endsWith", "SuffixMatcher", "SuffixMatcher x4"}) {
+                long alloc = THREADS.getCurrentThreadAllocatedBytes();
+                long start = System.nanoTime();
+                long found = 0;
+                for (String name : fileNames) {
+                    boolean match;
+                    switch (mode) {
+                        case "toLowerCase().endsWith": match = name.toLowerCase(Locale.ROOT).endsWith(ext); break;
+                        case "SuffixMatcher": match = matcher.matches(name); break;
+                        default: match = several.matches(name);
+                    }
+                    if (match) found++;
+                }
+                long nanos = System.nanoTime() - start;
+                long bytes = THREADS.getCurrentThreadAllocatedBytes() - alloc;
+                sink = found;
+                if (round == 1) {
+                    System.out.printf("%-26s %10.1f %12.1f %,10d%n", mode, (double) nanos / names,
+                            (double) bytes / names, found);
+                }
+            }
+        }
+
+        Path rootPath = Paths.get(root);
+        SyntheticTree.balanced(rootPath, files, 100, 10);
+        File rootDir = rootPath.toFile();
+        System.out.printf("%n%-26s %10s %12s%n", "Обхід дерева", "ms", "байт/файл");
+        for (int round = 0; round < 2; round++) {
+            for (String name : FileCounterBenchmark.COUNTERS.keySet()) {
+                FileCounter counter = FileCounterBenchmark.COUNTERS.get(name);
+                long alloc = allocatedBytes();
+                long start = System.nanoTime();
+                sink = counter.countFiles(rootDir, matcher);
+                long nanos = System.nanoTime() - start;
+                long bytes = allocatedBytes() - alloc;
+                if (round == 1) {
+                    System.out.printf("%-26s %10.1f %12.1f%n", name, nanos / 1e6, (double) bytes / files);
+                }
+            }
+        }
+    }
+
+    // Усі живі потоки, включно з потоками ForkJoinPool.commonPool()
+    private static long allocatedBytes() {
+        long sum = 0;
+        for (long bytes : THREADS.getThreadAllocatedBytes(THREADS.getAllThreadIds())) {
+            if (bytes > 0) sum += bytes;
+        }
+        return sum;
+    }
+}
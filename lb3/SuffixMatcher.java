@@ -0,0 +1,119 @@
+package lb3;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// ====== Перевірка суфікса імені файлу без алокацій ======
+// Порівняння з кінця імені, без урахування регістру лише для ASCII-літер (A-Z == a-z),
+// тож не залежить від локалі і не створює нового рядка, як toLowerCase().endsWith(...).
+// Не-ASCII символи порівнюються точно.
+//
+// Набір суфіксів компілюється один раз: суфікси в нижньому регістрі, згруповані
+// за останнім символом — більшість імен відкидається однією перевіркою таблиці.
+final class SuffixMatcher {
+
+    private static final char[][] NONE = new char[0][];
+
+    // byLastChar[c] — суфікси, що закінчуються на ASCII-символ c (у нижньому регістрі)
+    private final char[][][] byLastChar = new char[128][][];
+    // Суфікси, що закінчуються не-ASCII символом (рідко)
+    private final char[][] other;
+    private final String description;
+
+    private SuffixMatcher(List<String> suffixes) {
+        List<List<char[]>> groups = new ArrayList<>();
+        for (int i = 0; i < 128; i++) {
+            groups.add(new ArrayList<>());
+        }
+        List<char[]> nonAscii = new ArrayList<>();
+        for (String s : suffixes) {
+            if (s.isEmpty()) {
+                throw new IllegalArgumentException("Суфікс не може бути порожнім");
+            }
+            char[] lower = s.toCharArray();
+            for (int i = 0; i < lower.length; i++) {
+                lower[i] = toLowerAscii(lower[i]);
+            }
+            char last = lower[lower.length - 1];
+            (last < 128 ? groups.get(last) : nonAscii).add(lower);
+        }
+        for (int c = 0; c < 128; c++) {
+            byLastChar[c] = groups.get(c).isEmpty() ? NONE : groups.get(c).toArray(new char[0][]);
+        }
+        this.other = nonAscii.toArray(new char[0][]);
+        this.description = String.join(", ", suffixes);
+    }
+
+    // Набір суфіксів як є: of(".pdf", ".tar.gz")
+    static SuffixMatcher of(String... suffixes) {
+        return new SuffixMatcher(Arrays.asList(suffixes));
+    }
+
+    /**
+     * Розширення, як його вводить користувач:
+     * "pdf" -> ".pdf"
+     * "*.pdf" -> ".pdf"
+     * ".pdf" -> ".pdf"
+     */
+    static SuffixMatcher forExtension(String ext) {
+        return of(normalizeExtension(ext));
+    }
+
+    // Ті самі правила, що й forExtension, — і для ключів ExtensionHistogram
+    static String normalizeExtension(String ext) {
+        ext = ext.trim();
+        if (ext.startsWith("*")) {
+            ext = ext.substring(1); // прибрати *
+        }
+        if (!ext.startsWith(".")) {
+            ext = "." + ext;
+        }
+        return ext;
+    }
+
+    // Нижній регістр лише для ASCII — так само, як порівнює matches
+    static String toLowerAscii(String s) {
+        char[] chars = s.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = toLowerAscii(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    public boolean matches(CharSequence name) {
+        int length = name.length();
+        if (length == 0) {
+            return false;
+        }
+        char last = toLowerAscii(name.charAt(length - 1));
+        char[][] candidates = last < 128 ? byLastChar[last] : other;
+        for (char[] suffix : candidates) {
+            if (endsWith(name, length, suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean endsWith(CharSequence name, int length, char[] suffix) {
+        int offset = length - suffix.length;
+        if (offset < 0) {
+            return false;
+        }
+        for (int i = suffix.length - 1; i >= 0; i--) {
+            if (toLowerAscii(name.charAt(offset + i)) != suffix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static char toLowerAscii(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c | 0x20) : c;
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
@@ -0,0 +1,132 @@
+package lb3;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+// ====== Генератор синтетичного дерева файлів для бенчмарків ======
+// Форми: збалансоване (fanout піддиректорій, filesPerDir файлів у кожній), широке,
+// глибоке і перекошене. Файли — з розширеннями з EXTENSIONS по колу (у різному регістрі),
+// розміром 0..3 байти.
+// Якщо в root уже є маркер з тими самими параметрами — дерево перевикористовується.
+final class SyntheticTree {
+
+    static final String[] EXTENSIONS = {".pdf", ".txt", ".JPG", ".log", ".Pdf", ".java", ".tar.gz", ".md"};
+
+    private static final String MARKER = ".synthetic-tree";
+
+    private SyntheticTree() { }
+
+    // Повертає кількість створених (або вже наявних) файлів
+    static long balanced(Path root, long files, int filesPerDir, int fanout) throws IOException {
+        String params = "balanced " + files + " " + filesPerDir + " " + fanout;
+        if (!reuse(root, params)) {
+            fillBalanced(root, files, filesPerDir, fanout);
+            Files.writeString(root.resolve(MARKER), params);
+        }
+        return files;
+    }
+
+    // Широке: dirs листових піддиректорій прямо в root, по filesPerDir файлів у кожній
+    static long wide(Path root, int dirs, int filesPerDir) throws IOException {
+        String params = "wide " + dirs + " " + filesPerDir;
+        if (!reuse(root, params)) {
+            for (int d = 0; d < dirs; d++) {
+                Path dir = Files.createDirectories(root.resolve("d" + d));
+                for (int f = 0; f < filesPerDir; f++) {
+                    writeFile(dir, f);
+                }
+            }
+            Files.writeString(root.resolve(MARKER), params);
+        }
+        return (long) dirs * filesPerDir;
+    }
+
+    // Глибоке: ланцюжок з depth вкладених директорій, по filesPerDir файлів на рівні
+    static long deep(Path root, int depth, int filesPerDir) throws IOException {
+        String params = "deep " + depth + " " + filesPerDir;
+        if (!reuse(root, params)) {
+            Path dir = root;
+            for (int level = 0; level < depth; level++) {
+                Files.createDirectories(dir);
+                for (int f = 0; f < filesPerDir; f++) {
+                    writeFile(dir, f);
+                }
+                dir = dir.resolve("d");
+            }
+            Files.writeString(root.resolve(MARKER), params);
+        }
+        return (long) depth * filesPerDir;
+    }
+
+    // Перекошене: 90% файлів в одному збалансованому піддереві big/,
+    // решта — по одному файлу в дрібних директоріях small/sN
+    static long skewed(Path root, long files) throws IOException {
+        String params = "skewed " + files;
+        long big = files * 9 / 10;
+        if (!reuse(root, params)) {
+            fillBalanced(root.resolve("big"), big, 100, 10);
+            Path small = Files.createDirectories(root.resolve("small"));
+            for (long s = 0; s < files - big; s++) {
+                writeFile(Files.createDirectories(small.resolve("s" + s)), (int) (s % EXTENSIONS.length));
+            }
+            Files.writeString(root.resolve(MARKER), params);
+        }
+        return files;
+    }
+
+    private static void fillBalanced(Path root, long files, int filesPerDir, int fanout) throws IOException {
+        Deque<Path> queue = new ArrayDeque<>();
+        queue.add(root);
+        long created = 0;
+        int dirIndex = 0;
+        while (created < files) {
+            Path dir = queue.poll();
+            Files.createDirectories(dir);
+            for (int f = 0; f < filesPerDir && created < files; f++, created++) {
+                writeFile(dir, f);
+            }
+            for (int d = 0; d < fanout; d++) {
+                queue.add(dir.resolve("d" + (dirIndex++)));
+            }
+        }
+    }
+
+    // Скільки файлів balanced(files, filesPerDir, ...) мають розширення ext (без урахування регістру)
+    static long expectedCount(long files, int filesPerDir, String ext) {
+        return files / filesPerDir * matching(filesPerDir, ext) + matching((int) (files % filesPerDir), ext);
+    }
+
+    private static long matching(int filesInDir, String ext) {
+        long count = 0;
+        for (int f = 0; f < filesInDir; f++) {
+            if (EXTENSIONS[f % EXTENSIONS.length].toLowerCase(Locale.ROOT).endsWith(ext.toLowerCase(Locale.ROOT))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static void writeFile(Path dir, int index) throws IOException {
+        Path file = dir.resolve("f" + index + EXTENSIONS[index % EXTENSIONS.length]);
+        Files.write(file, new byte[index % 4]);
+    }
+
+    static boolean reuse(Path root, String params) throws IOException {
+        Path marker = root.resolve(MARKER);
+        if (Files.isRegularFile(marker) && Files.readString(marker).equals(params)) {
+            return true;
+        }
+        if (Files.exists(root)) {
+            try (Stream<Path> entries = Files.list(root)) {
+                if (entries.findAny().isPresent()) {
+                    throw new IOException("Директорія " + root + " не порожня і не є деревом з параметрами " + params);
+                }
+            }
+        }
+        return false;
+    }
+}